@@ -0,0 +1,49 @@
+//
+// Triple Play - utilities for use in PlayN-based games
+// Copyright (c) 2011, Three Rings Design, Inc. - All rights reserved.
+// http://github.com/threerings/tripleplay/blob/master/LICENSE
+
+package tripleplay.anim;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import tripleplay.bench.StubLayer;
+
+/**
+ * Measures {@link Animator#update} with a large number of concurrently running layer tweens. No
+ * tween completes, so pooling is irrelevant here; see {@link AnimatorChurnBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnimatorBenchmark
+{
+    @Param({ "100", "1000", "10000" })
+    public int tweens;
+
+    @Param({ "normal", "batched" })
+    public String animator;
+
+    @Setup public void setup () {
+        _anim = animator.equals("batched") ? Animator.createBatched() : Animator.create();
+        for (int ii = 0; ii < tweens; ii++) {
+            StubLayer layer = new StubLayer(10, 10);
+            // tweens run (effectively) forever so that every frame does the same work
+            _anim.tweenXY(layer).to(100, 100).in(1e9f).easeInOut();
+            _anim.tweenAlpha(layer).to(0).in(1e9f);
+        }
+        _anim.update(_time);
+    }
+
+    @Benchmark public void update () {
+        _anim.update(_time += 16);
+    }
+
+    protected Animator _anim;
+    protected float _time;
+}
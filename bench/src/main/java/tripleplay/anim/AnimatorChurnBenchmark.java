@@ -0,0 +1,56 @@
+//
+// Triple Play - utilities for use in PlayN-based games
+// Copyright (c) 2011, Three Rings Design, Inc. - All rights reserved.
+// http://github.com/threerings/tripleplay/blob/master/LICENSE
+
+package tripleplay.anim;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import tripleplay.bench.StubLayer;
+
+/**
+ * Measures {@link Animator#update} when tweens are continually completing and being replaced, as
+ * with short-lived effects. Every frame, a quarter of the tweens complete and as many new ones are
+ * started, so a pooled animator recycles the completed tweens rather than creating new ones. Run
+ * with {@code -prof gc} to compare {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnimatorChurnBenchmark
+{
+    @Param({ "100", "1000", "10000" })
+    public int tweens;
+
+    @Param({ "normal", "pooled" })
+    public String animator;
+
+    @Setup public void setup () {
+        _anim = animator.equals("pooled") ? Animator.createPooled() : Animator.create();
+        _layers = new StubLayer[tweens / FRAMES];
+        for (int ii = 0; ii < _layers.length; ii++) _layers[ii] = new StubLayer(10, 10);
+        // stagger the initial tweens so that the same number complete on every frame
+        for (int ff = 0; ff < FRAMES; ff++) frame();
+    }
+
+    @Benchmark public void frame () {
+        for (StubLayer layer : _layers) {
+            _anim.tweenXY(layer).to(100, 100).in(FRAMES * STEP).easeInOut();
+        }
+        _anim.update(_time += STEP);
+    }
+
+    protected Animator _anim;
+    protected StubLayer[] _layers;
+    protected float _time;
+
+    /** The number of frames for which each tween runs. */
+    protected static final int FRAMES = 4;
+    protected static final float STEP = 16;
+}
@@ -0,0 +1,50 @@
+//
+// Triple Play - utilities for use in PlayN-based games
+// Copyright (c) 2011, Three Rings Design, Inc. - All rights reserved.
+// http://github.com/threerings/tripleplay/blob/master/LICENSE
+
+package tripleplay.anim;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the {@link Animator#update} frame on which a large number of animations complete at
+ * once (interleaved with an equal number which keep running). The time per completed animation
+ * should remain flat as the number of completions grows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 20)
+@Measurement(iterations = 20)
+@Fork(1)
+public class AnimatorCompletionBenchmark
+{
+    @Param({ "100", "1000", "10000", "50000" })
+    public int completions;
+
+    @Setup(Level.Invocation) public void setup () {
+        _anim = Animator.create();
+        Animation.Value value = new Animation.Value() {
+            public float initial () {
+                return 0;
+            }
+            public void set (float value) {
+                _value = value;
+            }
+        };
+        for (int ii = 0; ii < completions*2; ii++) _anim.tween(value).to(1).in(ii % 2 == 0 ? 1 : 2);
+        _anim.update(0);
+        _anim.update(0.5f);
+    }
+
+    @Benchmark public float complete () {
+        _anim.update(1.5f);
+        return _value;
+    }
+
+    protected Animator _anim;
+    protected float _value;
+}
@@ -0,0 +1,78 @@
+//
+// Triple Play - utilities for use in PlayN-based games
+// Copyright (c) 2011, Three Rings Design, Inc. - All rights reserved.
+// http://github.com/threerings/tripleplay/blob/master/LICENSE
+
+package tripleplay.bench;
+
+import playn.core.AbstractLayer;
+import playn.core.GroupLayer;
+import playn.core.GroupLayerImpl;
+import playn.core.Layer;
+import playn.core.ParentLayer;
+
+import pythagoras.f.Point;
+
+/**
+ * A group layer that maintains a real hierarchy, but renders nothing. Children which are not
+ * themselves {@link AbstractLayer}s (i.e. stubs supplied by {@link StubPlatform}) are ignored.
+ */
+public class StubGroupLayer extends AbstractLayer implements GroupLayer, ParentLayer
+{
+    @Override public Layer get (int index) {
+        return _impl.children.get(index);
+    }
+
+    @Override public void add (Layer layer) {
+        if (layer instanceof AbstractLayer) _impl.add(this, (AbstractLayer)layer);
+    }
+
+    @Override public void addAt (Layer layer, float tx, float ty) {
+        _impl.addAt(this, layer, tx, ty);
+    }
+
+    @Override public void add (int index, Layer layer) {
+        if (layer instanceof AbstractLayer) _impl.add(this, index, (AbstractLayer)layer);
+    }
+
+    @Override public void remove (Layer layer) {
+        if (layer instanceof AbstractLayer) _impl.remove(this, (AbstractLayer)layer);
+    }
+
+    @Override public void remove (int index) {
+        _impl.remove(this, index);
+    }
+
+    @Override public void clear () {
+        _impl.clear(this);
+    }
+
+    @Override public int size () {
+        return _impl.children.size();
+    }
+
+    @Override public void destroy () {
+        super.destroy();
+        _impl.destroy(this);
+    }
+
+    @Override public void onAdd () {
+        super.onAdd();
+        _impl.onAdd(this);
+    }
+
+    @Override public void onRemove () {
+        super.onRemove();
+        _impl.onRemove(this);
+    }
+
+    @Override public Layer hitTestDefault (Point point) {
+        return _impl.hitTest(this, point);
+    }
+
+    @Override public void depthChanged (Layer layer, float oldDepth) {
+        _impl.depthChanged(this, layer, oldDepth);
+    }
+
+    protected final GroupLayerImpl<AbstractLayer> _impl = new GroupLayerImpl<AbstractLayer>();
+}
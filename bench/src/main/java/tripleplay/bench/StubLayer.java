@@ -0,0 +1,43 @@
+//
+// Triple Play - utilities for use in PlayN-based games
+// Copyright (c) 2011, Three Rings Design, Inc. - All rights reserved.
+// http://github.com/threerings/tripleplay/blob/master/LICENSE
+
+package tripleplay.bench;
+
+import playn.core.AbstractLayer;
+import playn.core.Layer;
+
+/**
+ * A sized layer that renders nothing, but otherwise has a real transform and participates in
+ * hit testing.
+ */
+public class StubLayer extends AbstractLayer implements Layer.HasSize
+{
+    public StubLayer () {
+        this(0, 0);
+    }
+
+    public StubLayer (float width, float height) {
+        _width = width;
+        _height = height;
+    }
+
+    @Override public float width () {
+        return _width;
+    }
+
+    @Override public float height () {
+        return _height;
+    }
+
+    @Override public float scaledWidth () {
+        return transform().scaleX() * _width;
+    }
+
+    @Override public float scaledHeight () {
+        return transform().scaleY() * _height;
+    }
+
+    protected final float _width, _height;
+}
@@ -0,0 +1,66 @@
+//
+// Triple Play - utilities for use in PlayN-based games
+// Copyright (c) 2011, Three Rings Design, Inc. - All rights reserved.
+// http://github.com/threerings/tripleplay/blob/master/LICENSE
+
+package tripleplay.bench;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import playn.core.Graphics;
+import playn.core.Platform;
+import playn.core.PlayN;
+
+/**
+ * A headless PlayN platform for use by benchmarks. Group layers are real (see {@link
+ * StubGroupLayer}) so that layer hierarchies and transforms behave normally. Every other service
+ * is a no-op stub whose methods return zero, false, the empty string, or a further stub.
+ */
+public class StubPlatform
+{
+    /**
+     * Registers the stub platform with PlayN, if it has not already been registered. This must be
+     * called before any Triple Play UI classes are loaded, as they obtain fonts and layers from
+     * the platform during static initialization.
+     */
+    public static synchronized void register () {
+        if (_registered) return;
+        PlayN.setPlatform(stub(Platform.class));
+        _registered = true;
+    }
+
+    protected static <T> T stub (final Class<T> iface) {
+        Object stub = Proxy.newProxyInstance(
+            StubPlatform.class.getClassLoader(), new Class<?>[] { iface }, new InvocationHandler() {
+                public Object invoke (Object proxy, Method method, Object[] args) {
+                    String name = method.getName();
+                    if (name.equals("equals")) return proxy == args[0];
+                    if (name.equals("hashCode")) return System.identityHashCode(proxy);
+                    if (name.equals("toString")) return "Stub" + iface.getSimpleName();
+                    if (iface == Graphics.class) {
+                        if (name.equals("createGroupLayer")) return new StubGroupLayer();
+                        if (name.equals("rootLayer")) return _rootLayer;
+                    }
+                    return defaultValue(method.getReturnType());
+                }
+            });
+        return iface.cast(stub);
+    }
+
+    protected static Object defaultValue (Class<?> type) {
+        if (type == void.class) return null;
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == float.class) return 0f;
+        if (type == double.class) return 0d;
+        if (type == long.class) return 0L;
+        if (type == String.class) return "";
+        if (type.isInterface()) return stub(type);
+        return null;
+    }
+
+    protected static boolean _registered;
+    protected static final StubGroupLayer _rootLayer = new StubGroupLayer();
+}
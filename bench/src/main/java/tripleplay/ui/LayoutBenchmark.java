@@ -0,0 +1,89 @@
+//
+// Triple Play - utilities for use in PlayN-based games
+// Copyright (c) 2011, Three Rings Design, Inc. - All rights reserved.
+// http://github.com/threerings/tripleplay/blob/master/LICENSE
+
+package tripleplay.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import tripleplay.bench.StubPlatform;
+import tripleplay.ui.layout.AxisLayout;
+import tripleplay.ui.layout.BorderLayout;
+import tripleplay.ui.layout.FlowLayout;
+import tripleplay.ui.layout.TableLayout;
+
+/**
+ * Measures layout passes over a large element tree. The root contains a column of groups, each of
+ * which uses the layout under test to arrange a set of fixed size children. {@link #relayout}
+ * invalidates every element prior to each pass, so that the whole tree is measured and laid out
+ * again. {@link #relayoutLeaves} invalidates only the leaves, whose preferred sizes do not change,
+ * so that only the leaves are measured and laid out again.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LayoutBenchmark
+{
+    @Param({ "axis", "table", "flow", "border" })
+    public String layout;
+
+    @Param({ "100", "1000" })
+    public int elements;
+
+    @Setup public void setup () {
+        StubPlatform.register();
+        _root = new Interface().createRoot(AxisLayout.vertical(), Stylesheet.builder().create());
+
+        // border layouts only have five slots, so we use more (smaller) groups for them
+        int perGroup = layout.equals("border") ? 5 : 50;
+        for (int gg = 0; gg < elements / perGroup; gg++) {
+            Group group = new Group(createLayout());
+            for (int ii = 0; ii < perGroup; ii++) {
+                Shim shim = new Shim(10 + ii % 7, 10 + ii % 5);
+                if (layout.equals("border")) shim.setConstraint(BORDER[ii]);
+                group.add(shim);
+                _leaves.add(shim);
+            }
+            _root.add(group);
+            _groups.add(group);
+        }
+        _root.setSize(800, 600);
+        _root.validate();
+    }
+
+    @Benchmark public void relayout () {
+        // invalidate from the leaves up, so that every element is marked invalid
+        for (int ii = 0, ll = _leaves.size(); ii < ll; ii++) _leaves.get(ii).invalidate();
+        for (int ii = 0, ll = _groups.size(); ii < ll; ii++) _groups.get(ii).invalidate();
+        _root.invalidate();
+        _root.validate();
+    }
+
+    @Benchmark public void relayoutLeaves () {
+        for (int ii = 0, ll = _leaves.size(); ii < ll; ii++) _leaves.get(ii).invalidate();
+        _root.validate();
+    }
+
+    protected Layout createLayout () {
+        if (layout.equals("axis")) return AxisLayout.horizontal().gap(2);
+        if (layout.equals("table")) return new TableLayout(5).gaps(2, 2);
+        if (layout.equals("flow")) return new FlowLayout().gaps(2);
+        return new BorderLayout(2);
+    }
+
+    protected Root _root;
+    protected List<Element<?>> _groups = new ArrayList<Element<?>>();
+    protected List<Element<?>> _leaves = new ArrayList<Element<?>>();
+
+    protected static final Layout.Constraint[] BORDER = {
+        BorderLayout.NORTH, BorderLayout.SOUTH, BorderLayout.EAST, BorderLayout.WEST,
+        BorderLayout.CENTER };
+}
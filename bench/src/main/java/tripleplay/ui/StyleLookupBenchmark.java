@@ -0,0 +1,77 @@
+//
+// Triple Play - utilities for use in PlayN-based games
+// Copyright (c) 2011, Three Rings Design, Inc. - All rights reserved.
+// http://github.com/threerings/tripleplay/blob/master/LICENSE
+
+package tripleplay.ui;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import tripleplay.bench.StubPlatform;
+
+/**
+ * Compares looking up a style in a {@link Styles} by direct index on style id with the binary
+ * search (over bindings ordered by style hash code) that it replaced, for elements with 10-20
+ * bindings. Lookups cycle through the bound styles and a few unbound ones.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StyleLookupBenchmark
+{
+    @Param({ "10", "20" })
+    public int bindings;
+
+    @Param({ "indexed", "search" })
+    public String lookup;
+
+    @Setup public void setup () {
+        StubPlatform.register();
+        _elem = new Shim(10, 10);
+        for (int ii = 0; ii < _all.length; ii++) _all[ii] = Style.newStyle(false, 0);
+        Style.Binding<?>[] bs = new Style.Binding<?>[bindings];
+        for (int ii = 0; ii < bindings; ii++) bs[ii] = _all[ii].is(ii);
+        _styles = Styles.make(bs);
+
+        _byHash = _styles._bindings.clone();
+        Arrays.sort(_byHash, new Comparator<Styles.Binding<?>>() {
+            public int compare (Styles.Binding<?> a, Styles.Binding<?> b) {
+                int hc = a.style.hashCode(), ohc = b.style.hashCode();
+                return (hc < ohc) ? -1 : ((hc == ohc) ? 0 : 1);
+            }
+        });
+        _indexed = lookup.equals("indexed");
+    }
+
+    @Benchmark public Object get () {
+        Style<Integer> style = _all[_next++ % (bindings + 4)];
+        return _indexed ? _styles.get(style, _elem) : search(style);
+    }
+
+    protected Object search (Style<Integer> style) {
+        int low = 0, high = _byHash.length-1, hc = style.hashCode();
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            Styles.Binding<?> mbinding = _byHash[mid];
+            if (mbinding.style == style) return mbinding.get(_elem);
+            if (mbinding.style.hashCode() < hc) low = mid + 1;
+            else high = mid - 1;
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected Style<Integer>[] _all = new Style[24];
+    protected Element<?> _elem;
+    protected Styles _styles;
+    protected Styles.Binding<?>[] _byHash;
+    protected boolean _indexed;
+    protected int _next;
+}
@@ -0,0 +1,59 @@
+//
+// Triple Play - utilities for use in PlayN-based games
+// Copyright (c) 2011, Three Rings Design, Inc. - All rights reserved.
+// http://github.com/threerings/tripleplay/blob/master/LICENSE
+
+package tripleplay.ui;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import tripleplay.bench.StubPlatform;
+import tripleplay.ui.layout.AxisLayout;
+
+/**
+ * Measures {@link Styles#resolveStyle} for an element nested at the bottom of a chain of groups,
+ * for styles that are found on the element itself, in the root stylesheet, or nowhere at all.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StylesBenchmark
+{
+    @Param({ "1", "8" })
+    public int depth;
+
+    @Param({ "element", "sheet", "default" })
+    public String source;
+
+    @Setup public void setup () {
+        StubPlatform.register();
+        Stylesheet sheet = Stylesheet.builder().
+            add(Element.class, Style.HALIGN.left, Style.VALIGN.top).
+            add(Shim.class, Style.COLOR.is(0xFF336699)).create();
+        Root root = new Interface().createRoot(AxisLayout.vertical(), sheet);
+
+        Elements<?> parent = root;
+        for (int ii = 1; ii < depth; ii++) {
+            Group group = new Group(AxisLayout.vertical());
+            parent.add(group);
+            parent = group;
+        }
+        _leaf = new Shim(10, 10);
+        if (source.equals("element")) _leaf.addStyles(Style.COLOR.is(0xFF993366));
+        parent.add(_leaf);
+
+        _style = source.equals("default") ? Style.HIGHLIGHT : Style.COLOR;
+    }
+
+    @Benchmark public Object resolve () {
+        return Styles.resolveStyle(_leaf, _style);
+    }
+
+    protected Element<?> _leaf;
+    protected Style<Integer> _style;
+}
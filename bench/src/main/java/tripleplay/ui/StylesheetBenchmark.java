@@ -0,0 +1,54 @@
+//
+// Triple Play - utilities for use in PlayN-based games
+// Copyright (c) 2011, Three Rings Design, Inc. - All rights reserved.
+// http://github.com/threerings/tripleplay/blob/master/LICENSE
+
+package tripleplay.ui;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import tripleplay.bench.StubPlatform;
+
+/**
+ * Compares the flattened {@link Stylesheet#get} lookup with the recursive class hierarchy search
+ * it replaced, for an element at the bottom of a deep widget subclass chain. The looked up style
+ * is configured only for {@link Element}, which is the worst case for the recursive search.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StylesheetBenchmark
+{
+    public static class Label1 extends Label {}
+    public static class Label2 extends Label1 {}
+    public static class Label3 extends Label2 {}
+    public static class Label4 extends Label3 {}
+    public static class Label5 extends Label4 {}
+
+    @Param({ "flattened", "recursive" })
+    public String lookup;
+
+    @Setup public void setup () {
+        StubPlatform.register();
+        _sheet = Stylesheet.builder().
+            add(Element.class, Style.COLOR.is(0xFF000000), Style.SHADOW.is(0xFF333333)).
+            add(Label.class, Style.HALIGN.left).
+            add(Label3.class, Style.Mode.DISABLED, Style.COLOR.is(0xFF999999)).create();
+        _elem = new Label5();
+        _flattened = lookup.equals("flattened");
+    }
+
+    @Benchmark public Object get () {
+        return _flattened ? _sheet.get(Style.SHADOW, Label5.class, _elem) :
+            _sheet.getRecursive(Style.SHADOW, Label5.class, _elem);
+    }
+
+    protected Stylesheet _sheet;
+    protected Element<?> _elem;
+    protected boolean _flattened;
+}
@@ -0,0 +1,77 @@
+//
+// Triple Play - utilities for use in PlayN-based games
+// Copyright (c) 2011, Three Rings Design, Inc. - All rights reserved.
+// http://github.com/threerings/tripleplay/blob/master/LICENSE
+
+package tripleplay.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import playn.core.Pointer;
+
+import pythagoras.f.Rectangle;
+
+import tripleplay.bench.StubGroupLayer;
+import tripleplay.bench.StubLayer;
+import tripleplay.bench.StubPlatform;
+
+/**
+ * Measures {@link Input.Reactor#hitTest} with a large number of registered reactions, arranged
+ * in a grid, with and without a spatial index. The pointer is moved over a fixed sequence of
+ * points which hit and miss.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputBenchmark
+{
+    @Param({ "100", "1000" })
+    public int reactions;
+
+    @Param({ "bounds", "layer" })
+    public String region;
+
+    @Param({ "false", "true" })
+    public boolean indexed;
+
+    @Setup public void setup () {
+        StubPlatform.register();
+        StubGroupLayer root = new StubGroupLayer();
+        Pointer.Listener listener = new Pointer.Adapter();
+        if (indexed) _input.enableIndex(CELL);
+        for (int ii = 0; ii < reactions; ii++) {
+            float x = (ii % COLS) * CELL, y = (ii / COLS) * CELL;
+            if (region.equals("bounds")) {
+                _input.register(new Rectangle(x, y, CELL-2, CELL-2), listener);
+            } else {
+                StubLayer layer = new StubLayer(CELL-2, CELL-2);
+                root.addAt(layer, x, y);
+                _input.register(new Input.SizedLayerRegion(layer).fixed(), listener);
+            }
+        }
+
+        float height = (reactions / COLS + 1) * CELL;
+        _events = new Pointer.Event[64];
+        for (int ii = 0; ii < _events.length; ii++) {
+            _events[ii] = new Pointer.Event.Impl(
+                0, (ii * 37) % (COLS * CELL), (ii * 53) % height, false);
+        }
+    }
+
+    @Benchmark public Object hitTest () {
+        Pointer.Event event = _events[_next++ & 63];
+        return ((PointerInput.PointerReactor)_input.plistener).hitTest(event);
+    }
+
+    protected PointerInput _input = new PointerInput();
+    protected Pointer.Event[] _events;
+    protected int _next;
+
+    protected static final int COLS = 20;
+    protected static final float CELL = 32;
+}
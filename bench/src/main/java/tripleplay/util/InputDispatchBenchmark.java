@@ -0,0 +1,93 @@
+//
+// Triple Play - utilities for use in PlayN-based games
+// Copyright (c) 2011, Three Rings Design, Inc. - All rights reserved.
+// http://github.com/threerings/tripleplay/blob/master/LICENSE
+
+package tripleplay.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import playn.core.Mouse;
+import playn.core.Pointer;
+
+import pythagoras.f.Rectangle;
+
+import tripleplay.bench.StubGroupLayer;
+import tripleplay.bench.StubLayer;
+import tripleplay.bench.StubPlatform;
+
+/**
+ * Measures the full dispatch of pointer and mouse events through {@link PointerInput} and {@link
+ * MouseInput}, over a mix of bounds, layer and sized layer regions. Dispatch should not allocate;
+ * run with {@code -prof gc} and check that {@code gc.alloc.rate.norm} is (about) zero.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputDispatchBenchmark
+{
+    @Param({ "100" })
+    public int reactions;
+
+    @Setup public void setup () {
+        StubPlatform.register();
+        StubGroupLayer root = new StubGroupLayer();
+        Pointer.Listener plistener = new Pointer.Adapter();
+        Mouse.Listener mlistener = new Mouse.Adapter();
+        for (int ii = 0; ii < reactions; ii++) {
+            float x = (ii % COLS) * CELL, y = (ii / COLS) * CELL;
+            switch (ii % 3) {
+            case 0:
+                Rectangle bounds = new Rectangle(x, y, CELL-2, CELL-2);
+                _pinput.register(bounds, plistener);
+                _minput.register(bounds, mlistener);
+                break;
+            case 1:
+                StubLayer layer = new StubLayer(CELL-2, CELL-2);
+                root.addAt(layer, x, y);
+                _pinput.register(layer, new Rectangle(0, 0, CELL-2, CELL-2), plistener);
+                _minput.register(layer, new Rectangle(0, 0, CELL-2, CELL-2), mlistener);
+                break;
+            default:
+                StubLayer slayer = new StubLayer(CELL-2, CELL-2);
+                root.addAt(slayer, x, y);
+                _pinput.register(slayer, plistener);
+                _minput.register(slayer, mlistener);
+                break;
+            }
+        }
+
+        float height = (reactions / COLS + 1) * CELL;
+        _pevents = new Pointer.Event[64];
+        _mevents = new Mouse.MotionEvent[64];
+        for (int ii = 0; ii < _pevents.length; ii++) {
+            float x = (ii * 37) % (COLS * CELL), y = (ii * 53) % height;
+            _pevents[ii] = new Pointer.Event.Impl(0, x, y, false);
+            _mevents[ii] = new Mouse.MotionEvent.Impl(0, x, y, 0, 0);
+        }
+    }
+
+    @Benchmark public void pointerClick () {
+        Pointer.Event event = _pevents[_next++ & 63];
+        _pinput.plistener.onPointerStart(event);
+        _pinput.plistener.onPointerEnd(event);
+    }
+
+    @Benchmark public void mouseMove () {
+        _minput.mlistener.onMouseMove(_mevents[_next++ & 63]);
+    }
+
+    protected PointerInput _pinput = new PointerInput();
+    protected MouseInput _minput = new MouseInput();
+    protected Pointer.Event[] _pevents;
+    protected Mouse.MotionEvent[] _mevents;
+    protected int _next;
+
+    protected static final int COLS = 20;
+    protected static final float CELL = 32;
+}
@@ -0,0 +1,42 @@
+//
+// Triple Play - utilities for use in PlayN-based games
+// Copyright (c) 2011, Three Rings Design, Inc. - All rights reserved.
+// http://github.com/threerings/tripleplay/blob/master/LICENSE
+
+package tripleplay.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the {@link Interpolator} implementations over a sweep of 1000 time steps.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterpolatorBenchmark
+{
+    @Param({ "LINEAR", "EASE_IN", "EASE_OUT", "EASE_INOUT" })
+    public String interp;
+
+    @Setup public void setup () {
+        if (interp.equals("LINEAR")) _interp = Interpolator.LINEAR;
+        else if (interp.equals("EASE_IN")) _interp = Interpolator.EASE_IN;
+        else if (interp.equals("EASE_OUT")) _interp = Interpolator.EASE_OUT;
+        else _interp = Interpolator.EASE_INOUT;
+    }
+
+    @Benchmark public float sweep () {
+        float sum = 0;
+        for (int ii = 0; ii < STEPS; ii++) sum += _interp.apply(10, 100, ii, STEPS);
+        return sum;
+    }
+
+    protected Interpolator _interp;
+
+    protected static final int STEPS = 1000;
+}
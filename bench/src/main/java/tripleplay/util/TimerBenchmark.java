@@ -0,0 +1,49 @@
+//
+// Triple Play - utilities for use in PlayN-based games
+// Copyright (c) 2011, Three Rings Design, Inc. - All rights reserved.
+// http://github.com/threerings/tripleplay/blob/master/LICENSE
+
+package tripleplay.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import tripleplay.bench.StubPlatform;
+
+/**
+ * Measures {@link Timer#update} with a large number of repeating actions, a fraction of which
+ * fire (and are rescheduled) on every frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimerBenchmark
+{
+    @Param({ "100", "1000", "10000" })
+    public int actions;
+
+    @Setup public void setup () {
+        StubPlatform.register();
+        _timer = new Timer(_now);
+        Runnable noop = new Runnable() {
+            public void run () {
+                _fired++;
+            }
+        };
+        // spread the intervals out so that each frame fires a handful of different actions
+        for (int ii = 0; ii < actions; ii++) _timer.every(16 * (1 + ii % 100), noop);
+    }
+
+    @Benchmark public int update () {
+        _timer.update(_now += 16);
+        return _fired;
+    }
+
+    protected Timer _timer;
+    protected long _now;
+    protected int _fired;
+}
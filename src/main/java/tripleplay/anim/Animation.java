@@ -23,6 +23,51 @@ public abstract class Animation
         void set (float value);
     }
 
+    /** Layer properties that can be tweened directly, without a custom {@link Value}. */
+    public static enum Prop {
+        /** The layer's x-translation. */
+        X {
+            public float get (Layer layer) { return layer.transform().tx(); }
+            public void set (Layer layer, float value) { layer.transform().setTx(value); }
+        },
+        /** The layer's y-translation. */
+        Y {
+            public float get (Layer layer) { return layer.transform().ty(); }
+            public void set (Layer layer, float value) { layer.transform().setTy(value); }
+        },
+        /** The layer's uniform x/y-scale. */
+        SCALE {
+            public float get (Layer layer) { return layer.transform().uniformScale(); }
+            public void set (Layer layer, float value) { layer.setScale(value); }
+        },
+        /** The layer's x-scale. */
+        SCALE_X {
+            public float get (Layer layer) { return layer.transform().scaleX(); }
+            public void set (Layer layer, float value) { layer.transform().setScaleX(value); }
+        },
+        /** The layer's y-scale. */
+        SCALE_Y {
+            public float get (Layer layer) { return layer.transform().scaleY(); }
+            public void set (Layer layer, float value) { layer.transform().setScaleY(value); }
+        },
+        /** The layer's rotation. */
+        ROTATION {
+            public float get (Layer layer) { return layer.transform().rotation(); }
+            public void set (Layer layer, float value) { layer.setRotation(value); }
+        },
+        /** The layer's transparency. */
+        ALPHA {
+            public float get (Layer layer) { return layer.alpha(); }
+            public void set (Layer layer, float value) { layer.setAlpha(value); }
+        };
+
+        /** Returns the current value of this property for the supplied layer. */
+        public abstract float get (Layer layer);
+
+        /** Updates this property on the supplied layer. */
+        public abstract void set (Layer layer, float value);
+    }
+
     /** A base class for animations that interpolate values. */
     public static abstract class Interped<R> extends Animation {
         /** Uses the supplied interpolator for this animation. */
@@ -59,6 +104,13 @@ public abstract class Animation
             return tthis;
         }
 
+        @Override
+        protected void reset () {
+            super.reset();
+            _interp = Interpolator.LINEAR;
+            _duration = 1;
+        }
+
         protected Interpolator _interp = Interpolator.LINEAR;
         protected float _duration = 1;
     }
@@ -69,6 +121,12 @@ public abstract class Animation
             _target = target;
         }
 
+        /** Creates an animation that tweens the specified property of the supplied layer. */
+        public One (Layer layer, Prop prop) {
+            _layer = layer;
+            _prop = prop;
+        }
+
         /** Configures the starting value. Default: the value of the scalar at the time that the
          * animation begins. */
         public One from (float value) {
@@ -85,21 +143,37 @@ public abstract class Animation
         @Override
         protected void init (float time) {
             super.init(time);
-            if (_from == Float.MIN_VALUE) _from = _target.initial();
+            if (_from == Float.MIN_VALUE) {
+                _from = (_target == null) ? _prop.get(_layer) : _target.initial();
+            }
         }
 
         @Override
         protected float apply (float time) {
             float dt = time-_start;
-            _target.set((dt < _duration) ? _interp.apply(_from, _to-_from, dt, _duration) : _to);
+            float value = (dt < _duration) ? _interp.apply(_from, _to-_from, dt, _duration) : _to;
+            if (_target == null) _prop.set(_layer, value);
+            else _target.set(value);
             return _duration - dt;
         }
 
+        @Override
+        protected void reset () {
+            super.reset();
+            _target = null;
+            _layer = null;
+            _prop = null;
+            _from = Float.MIN_VALUE;
+            _to = 0;
+        }
+
         @Override public String toString () {
             return getClass().getName() + " start:" + _start + " to " + _to;
         }
 
-        protected final Value _target;
+        protected Value _target;
+        protected Layer _layer;
+        protected Prop _prop;
         protected float _from = Float.MIN_VALUE;
         protected float _to;
     }
@@ -111,6 +185,14 @@ public abstract class Animation
             _y = y;
         }
 
+        /** Creates an animation that tweens the specified pair of properties of the supplied
+         * layer. */
+        public Two (Layer layer, Prop xprop, Prop yprop) {
+            _layer = layer;
+            _xprop = xprop;
+            _yprop = yprop;
+        }
+
         /** Configures the starting values. Default: the values of the scalar at the time that the
          * animation begins. */
         public Two from (float fromx, float fromy) {
@@ -129,24 +211,47 @@ public abstract class Animation
         @Override
         protected void init (float time) {
             super.init(time);
-            if (_fromx == Float.MIN_VALUE) _fromx = _x.initial();
-            if (_fromy == Float.MIN_VALUE) _fromy = _y.initial();
+            if (_fromx == Float.MIN_VALUE) {
+                _fromx = (_x == null) ? _xprop.get(_layer) : _x.initial();
+            }
+            if (_fromy == Float.MIN_VALUE) {
+                _fromy = (_y == null) ? _yprop.get(_layer) : _y.initial();
+            }
         }
 
         @Override
         protected float apply (float time) {
-            float dt = time-_start;
+            float dt = time-_start, x, y;
             if (dt < _duration) {
-                _x.set(_interp.apply(_fromx, _tox-_fromx, dt, _duration));
-                _y.set(_interp.apply(_fromy, _toy-_fromy, dt, _duration));
+                x = _interp.apply(_fromx, _tox-_fromx, dt, _duration);
+                y = _interp.apply(_fromy, _toy-_fromy, dt, _duration);
             } else {
-                _x.set(_tox);
-                _y.set(_toy);
+                x = _tox;
+                y = _toy;
+            }
+            if (_x == null) {
+                _xprop.set(_layer, x);
+                _yprop.set(_layer, y);
+            } else {
+                _x.set(x);
+                _y.set(y);
             }
             return _duration - dt;
         }
 
-        protected final Value _x, _y;
+        @Override
+        protected void reset () {
+            super.reset();
+            _x = _y = null;
+            _layer = null;
+            _xprop = _yprop = null;
+            _fromx = _fromy = Float.MIN_VALUE;
+            _tox = _toy = 0;
+        }
+
+        protected Value _x, _y;
+        protected Layer _layer;
+        protected Prop _xprop, _yprop;
         protected float _fromx = Float.MIN_VALUE, _fromy = Float.MIN_VALUE;
         protected float _tox, _toy;
     }
@@ -162,7 +267,7 @@ public abstract class Animation
             return _start + _duration - time;
         }
 
-        protected final float _duration;
+        protected float _duration;
     }
 
     /** An animation that executes an action and completes immediately. */
@@ -177,6 +282,12 @@ public abstract class Animation
             return 0;
         }
 
+        @Override
+        protected void reset () {
+            super.reset();
+            _action = null;
+        }
+
         protected Runnable _action;
     }
 
@@ -226,12 +337,18 @@ public abstract class Animation
         if (_next != null) {
             throw new IllegalStateException("This animation already has a 'then' animation.");
         }
-        return new Animator() {
-            @Override public <T extends Animation> T add (T anim) {
-                _next = anim;
-                return anim;
-            }
-        };
+        if (_then == null) {
+            _then = new Animator() {
+                @Override public <T extends Animation> T add (T anim) {
+                    _next = anim;
+                    return anim;
+                }
+                @Override protected Pool pool () {
+                    return _pool;
+                }
+            };
+        }
+        return _then;
     }
 
     /**
@@ -274,6 +391,29 @@ public abstract class Animation
 
     protected abstract float apply (float time);
 
+    /**
+     * Moves this (completed) animation on to the next animation in its chain, initializing said
+     * animation with the supplied start time. This is used by {@link TweenBatch} which applies
+     * tweens on the animation's behalf.
+     * @return true if there is a next animation that must now be run, false if the chain is done.
+     */
+    protected boolean advance (float time) {
+        _current = _next;
+        if (_current == null) return false;
+        _current.init(time);
+        return true;
+    }
+
+    /**
+     * Restores this animation to its freshly constructed state, prior to its being returned to the
+     * {@link Animator.Pool} from which it was obtained.
+     */
+    protected void reset () {
+        _start = 0;
+        _current = this;
+        _next = null;
+    }
+
     @Override public String toString () {
         return getClass().getName() + " start:" + _start;
     }
@@ -281,4 +421,10 @@ public abstract class Animation
     protected float _start;
     protected Animation _current = this;
     protected Animation _next;
+
+    /** The animator returned by {@link #then}, created on demand and reused thereafter. */
+    protected Animator _then;
+
+    /** The pool from which this animation was obtained, or null if it is not pooled. */
+    protected Animator.Pool _pool;
 }
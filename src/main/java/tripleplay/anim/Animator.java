@@ -25,7 +25,31 @@ public abstract class Animator
      * said animator to drive the animation process.
      */
     public static Animator create () {
-        return new Impl();
+        return new Impl(false, false);
+    }
+
+    /**
+     * Creates an animator which runs simple layer tweens (those started via {@link #tweenX},
+     * {@link #tweenXY}, {@link #tweenAlpha}, etc.) in a single batched pass over parallel arrays
+     * of tween state, rather than applying each tween individually. This is substantially cheaper
+     * when thousands of such tweens are running concurrently. Such tweens otherwise behave
+     * exactly as they do with a normal animator, with the exception that changes made to a tween's
+     * configuration after it has started will be ignored.
+     */
+    public static Animator createBatched () {
+        return new Impl(true, false);
+    }
+
+    /**
+     * Creates an animator which recycles the animations it creates (via {@link #tweenX}, {@link
+     * #tween}, {@link #delay}, {@link #action}, etc. and via {@link Animation#then}) once they
+     * complete or are cancelled. This avoids generating garbage in steady state, which helps to
+     * avoid GC pauses mid-animation on platforms like Android. <em>Note:</em> a pooled animation
+     * will be reused as soon as its chain completes, so callers must not retain references to such
+     * animations (to cancel them, for example) beyond that point.
+     */
+    public static Animator createPooled () {
+        return new Impl(false, true);
     }
 
     /**
@@ -45,84 +69,63 @@ public abstract class Animator
      * Starts a tween on the supplied layer's x/y-translation.
      */
     public Animation.Two tweenXY (Layer layer) {
-        return add(new Animation.Two(onX(layer), onY(layer)));
+        return tween(layer, Animation.Prop.X, Animation.Prop.Y);
     }
 
     /**
      * Starts a tween on the supplied layer's x-translation.
      */
     public Animation.One tweenX (Layer layer) {
-        return tween(onX(layer));
+        return tween(layer, Animation.Prop.X);
     }
 
     /**
      * Starts a tween on the supplied layer's y-translation.
      */
     public Animation.One tweenY (Layer layer) {
-        return tween(onY(layer));
+        return tween(layer, Animation.Prop.Y);
     }
 
     /**
      * Starts a tween on the supplied layer's rotation.
      */
-    public Animation.One tweenRotation (final Layer layer) {
-        return tween(new Animation.Value() {
-            public float initial () {
-                return layer.transform().rotation();
-            }
-            public void set (float value) {
-                layer.setRotation(value);
-            }
-        });
+    public Animation.One tweenRotation (Layer layer) {
+        return tween(layer, Animation.Prop.ROTATION);
     }
 
     /**
      * Starts a tween on the supplied layer's x/y-scale.
      */
-    public Animation.One tweenScale (final Layer layer) {
-        return tween(new Animation.Value() {
-            public float initial () {
-                return layer.transform().uniformScale();
-            }
-            public void set (float value) {
-                layer.setScale(value);
-            }
-        });
+    public Animation.One tweenScale (Layer layer) {
+        return tween(layer, Animation.Prop.SCALE);
     }
 
     /**
      * Starts a tween on the supplied layer's x/y-scale.
      */
     public Animation.Two tweenScaleXY (Layer layer) {
-        return add(new Animation.Two(onScaleX(layer), onScaleY(layer)));
+        return tween(layer, Animation.Prop.SCALE_X, Animation.Prop.SCALE_Y);
     }
 
     /**
      * Starts a tween on the supplied layer's x-scale.
      */
     public Animation.One tweenScaleX (Layer layer) {
-        return tween(onScaleX(layer));
+        return tween(layer, Animation.Prop.SCALE_X);
     }
 
     /**
      * Starts a tween on the supplied layer's y-scale.
      */
     public Animation.One tweenScaleY (Layer layer) {
-        return tween(onScaleY(layer));
+        return tween(layer, Animation.Prop.SCALE_Y);
     }
 
     /**
      * Starts a tween on the supplied layer's transparency.
      */
-    public Animation.One tweenAlpha (final Layer layer) {
-        return tween(new Animation.Value() {
-            public float initial () {
-                return layer.alpha();
-            }
-            public void set (float value) {
-                layer.setAlpha(value);
-            }
-        });
+    public Animation.One tweenAlpha (Layer layer) {
+        return tween(layer, Animation.Prop.ALPHA);
     }
 
     /**
@@ -131,14 +134,33 @@ public abstract class Animator
      * will be called each time the tween is updated with the intermediate values.
      */
     public Animation.One tween (Animation.Value value) {
-        return add(new Animation.One(value));
+        Pool pool = pool();
+        return add(pool == null ? new Animation.One(value) : pool.one(value));
+    }
+
+    /**
+     * Starts a tween on the specified property of the supplied layer.
+     */
+    public Animation.One tween (Layer layer, Animation.Prop prop) {
+        Pool pool = pool();
+        return add(pool == null ? new Animation.One(layer, prop) : pool.one(layer, prop));
+    }
+
+    /**
+     * Starts a tween on the specified pair of properties of the supplied layer.
+     */
+    public Animation.Two tween (Layer layer, Animation.Prop xprop, Animation.Prop yprop) {
+        Pool pool = pool();
+        return add(pool == null ? new Animation.Two(layer, xprop, yprop) :
+                   pool.two(layer, xprop, yprop));
     }
 
     /**
      * Creates an animation that delays for the specified number of seconds.
      */
     public Animation.Delay delay (float seconds) {
-        return add(new Animation.Delay(seconds));
+        Pool pool = pool();
+        return add(pool == null ? new Animation.Delay(seconds) : pool.delay(seconds));
     }
 
     /**
@@ -154,19 +176,16 @@ public abstract class Animator
      * Creates an animation that executes the supplied runnable and immediately completes.
      */
     public Animation.Action action (Runnable action) {
-        return add(new Animation.Action(action));
+        Pool pool = pool();
+        return add(pool == null ? new Animation.Action(action) : pool.action(action));
     }
 
     /**
      * Adds the supplied child to the supplied parent. This is generally done as the beginning of a
      * chain of animations, which itself may be delayed or subject to animation barriers.
      */
-    public Animation.Action add (final GroupLayer parent, final Layer child) {
-        return action(new Runnable() {
-            public void run () {
-                parent.add(child);
-            }
-        });
+    public Animation.Action add (GroupLayer parent, Layer child) {
+        return layerAction(LayerAction.ADD, parent, child, 0);
     }
 
     /**
@@ -176,35 +195,23 @@ public abstract class Animator
      * not change screen position, even though its coordinates relative to its parent will most
      * likely have changed.
      */
-    public Animation.Action reparent(final GroupLayer newParent, final Layer child) {
-        return action(new Runnable() {
-            public void run () {
-                Layers.reparent(child, newParent);
-            }
-        });
+    public Animation.Action reparent(GroupLayer newParent, Layer child) {
+        return layerAction(LayerAction.REPARENT, newParent, child, 0);
     }
 
     /**
      * Destroys the specified layer. This is generally done as the end of a chain of animations,
      * which culminate in the removal (destruction) of the target layer.
      */
-    public Animation.Action destroy (final Layer layer) {
-        return action(new Runnable() {
-            public void run () {
-                layer.destroy();
-            }
-        });
+    public Animation.Action destroy (Layer layer) {
+        return layerAction(LayerAction.DESTROY, null, layer, 0);
     }
 
     /**
      * Sets the specified layer's depth to the specified value.
      */
-    public Animation.Action setDepth (final Layer layer, final float depth) {
-        return action(new Runnable() {
-            public void run () {
-                layer.setDepth(depth);
-            }
-        });
+    public Animation.Action setDepth (Layer layer, float depth) {
+        return layerAction(LayerAction.SET_DEPTH, null, layer, depth);
     }
 
     /**
@@ -233,57 +240,157 @@ public abstract class Animator
         // nada by default
     }
 
-    protected static Animation.Value onX (final Layer layer) {
-        return new Animation.Value() {
-            public float initial () {
-                return layer.transform().tx();
-            }
-            public void set (float value) {
-                layer.transform().setTx(value);
-            }
-        };
+    /**
+     * Returns the pool from which this animator obtains its animations, or null if it creates new
+     * animations on demand.
+     */
+    protected Pool pool () {
+        return null;
     }
 
-    protected static Animation.Value onY (final Layer layer) {
-        return new Animation.Value() {
-            public float initial () {
-                return layer.transform().ty();
-            }
-            public void set (float value) {
-                layer.transform().setTy(value);
-            }
-        };
+    protected Animation.Action layerAction (int op, GroupLayer parent, Layer layer, float depth) {
+        Pool pool = pool();
+        LayerAction action = (pool == null) ? new LayerAction() : pool.layerAction();
+        action.op = op;
+        action.parent = parent;
+        action.layer = layer;
+        action.depth = depth;
+        return action(action);
     }
 
-    protected static Animation.Value onScaleX (final Layer layer) {
-        return new Animation.Value() {
-            public float initial () {
-                return layer.transform().scaleX();
+    /** The action performed by {@link #add}, {@link #reparent}, {@link #destroy} and {@link
+     * #setDepth}, which a pooled animator recycles along with the animation that runs it. */
+    protected static class LayerAction implements Runnable {
+        public static final int ADD = 0, REPARENT = 1, DESTROY = 2, SET_DEPTH = 3;
+
+        public int op;
+        public GroupLayer parent;
+        public Layer layer;
+        public float depth;
+
+        public void run () {
+            switch (op) {
+            case ADD: parent.add(layer); break;
+            case REPARENT: Layers.reparent(layer, parent); break;
+            case DESTROY: layer.destroy(); break;
+            case SET_DEPTH: layer.setDepth(depth); break;
             }
-            public void set (float value) {
-                layer.transform().setScaleX(value);
-            }
-        };
+        }
     }
 
-    protected static Animation.Value onScaleY (final Layer layer) {
-        return new Animation.Value() {
-            public float initial () {
-                return layer.transform().scaleY();
-            }
-            public void set (float value) {
-                layer.transform().setScaleY(value);
+    /** Recycles animations for {@link #createPooled} animators. */
+    protected static class Pool {
+        /** The total number of animations created by this pool, for diagnostic purposes. */
+        public int created;
+
+        /** The total number of layer actions created by this pool, likewise. */
+        public int createdActions;
+
+        public Animation.One one (Animation.Value target) {
+            Animation.One anim = (Animation.One)take(_ones);
+            if (anim == null) return init(new Animation.One(target));
+            anim._target = target;
+            return anim;
+        }
+
+        public Animation.One one (Layer layer, Animation.Prop prop) {
+            Animation.One anim = (Animation.One)take(_ones);
+            if (anim == null) return init(new Animation.One(layer, prop));
+            anim._layer = layer;
+            anim._prop = prop;
+            return anim;
+        }
+
+        public Animation.Two two (Layer layer, Animation.Prop xprop, Animation.Prop yprop) {
+            Animation.Two anim = (Animation.Two)take(_twos);
+            if (anim == null) return init(new Animation.Two(layer, xprop, yprop));
+            anim._layer = layer;
+            anim._xprop = xprop;
+            anim._yprop = yprop;
+            return anim;
+        }
+
+        public Animation.Delay delay (float duration) {
+            Animation.Delay anim = (Animation.Delay)take(_delays);
+            if (anim == null) return init(new Animation.Delay(duration));
+            anim._duration = duration;
+            return anim;
+        }
+
+        public Animation.Action action (Runnable action) {
+            Animation.Action anim = (Animation.Action)take(_actions);
+            if (anim == null) return init(new Animation.Action(action));
+            anim._action = action;
+            return anim;
+        }
+
+        public LayerAction layerAction () {
+            int size = _layerActions.size();
+            if (size > 0) return _layerActions.remove(size-1);
+            createdActions++;
+            return new LayerAction();
+        }
+
+        /**
+         * Returns the supplied (completed or cancelled) animation, and every animation chained
+         * onto it, to this pool. Animations that did not come from this pool are ignored.
+         */
+        public void release (Animation anim) {
+            while (anim != null) {
+                Animation next = anim._next;
+                if (anim._pool == this) {
+                    // layer actions are only ever run by our own animations, so recycle them too
+                    if (anim instanceof Animation.Action &&
+                        ((Animation.Action)anim)._action instanceof LayerAction) {
+                        LayerAction action = (LayerAction)((Animation.Action)anim)._action;
+                        action.parent = null;
+                        action.layer = null;
+                        _layerActions.add(action);
+                    }
+                    anim.reset();
+                    if (anim instanceof Animation.One) _ones.add(anim);
+                    else if (anim instanceof Animation.Two) _twos.add(anim);
+                    else if (anim instanceof Animation.Delay) _delays.add(anim);
+                    else if (anim instanceof Animation.Action) _actions.add(anim);
+                }
+                anim = next;
             }
-        };
+        }
+
+        protected <T extends Animation> T init (T anim) {
+            anim._pool = this;
+            created++;
+            return anim;
+        }
+
+        protected Animation take (List<Animation> pool) {
+            int size = pool.size();
+            return (size == 0) ? null : pool.remove(size-1);
+        }
+
+        protected final List<Animation> _ones = new ArrayList<Animation>();
+        protected final List<Animation> _twos = new ArrayList<Animation>();
+        protected final List<Animation> _delays = new ArrayList<Animation>();
+        protected final List<Animation> _actions = new ArrayList<Animation>();
+        protected final List<LayerAction> _layerActions = new ArrayList<LayerAction>();
     }
 
     /** Implementation details, avert your eyes. */
     protected static class Impl extends Animator {
+        public Impl (boolean batched, boolean pooled) {
+            _batch = batched ? new TweenBatch() : null;
+            _pool = pooled ? new Pool() : null;
+        }
+
         @Override public <T extends Animation> T add (T anim) {
             _accum.add(anim);
             return anim;
         }
 
+        @Override protected Pool pool () {
+            return _pool;
+        }
+
         @Override public void addBarrier (float delay) {
             Barrier barrier = new Barrier(delay);
             _barriers.add(barrier);
@@ -295,25 +402,43 @@ public abstract class Animator
             // if we have any animations queued up to be added, add those now
             if (!_nanims.isEmpty()) {
                 for (int ii = 0, ll = _nanims.size(); ii < ll; ii++) {
-                    _nanims.get(ii).init(time);
+                    Animation anim = _nanims.get(ii);
+                    anim.init(time);
+                    // simple layer tweens are handed off to our batch, if we have one
+                    if (_batch == null || !_batch.add(anim)) _anims.add(anim);
                 }
-                _anims.addAll(_nanims);
                 _nanims.clear();
             }
 
-            // now process all of our registered animations
-            for (int ii = 0, ll = _anims.size(); ii < ll; ii++) {
-                if (_anims.get(ii).apply(this, time) <= 0) {
-                    _anims.remove(ii--);
-                    ll -= 1;
+            // now process all of our registered animations, compacting the survivors toward the
+            // front of the list as we go (preserving their order) and then trimming the tail;
+            // this keeps the cost linear no matter how many animations complete in one frame
+            int live = 0, count = _anims.size();
+            for (int ii = 0; ii < count; ii++) {
+                Animation anim = _anims.get(ii);
+                if (anim.apply(this, time) > 0) {
+                    if (live != ii) _anims.set(live, anim);
+                    live++;
+                } else if (_pool != null) {
+                    _pool.release(anim);
                 }
             }
+            // removing from the end of an array list shifts nothing
+            for (int ii = count-1; ii >= live; ii--) _anims.remove(ii);
+
+            // process our batched tweens; any that complete and have further animations chained
+            // onto them are added to our active list to be run as normal from here on out
+            if (_batch != null) _batch.update(time, _anims);
 
             // if we have no active animations, or a timed barrier has expired, unblock a barrier
-            boolean noActiveAnims = _anims.isEmpty() && _nanims.isEmpty();
+            boolean noActiveAnims = _anims.isEmpty() && _nanims.isEmpty() &&
+                (_batch == null || _batch.isEmpty());
             if (!_barriers.isEmpty() && (noActiveAnims || _barriers.get(0).expired(time))) {
                 Barrier barrier = _barriers.remove(0);
-                _nanims.addAll(barrier.accum);
+                // copy by hand, addAll() would allocate a temporary array
+                for (int ii = 0, ll = barrier.accum.size(); ii < ll; ii++) {
+                    _nanims.add(barrier.accum.get(ii));
+                }
                 // if we just unblocked the last barrier, start accumulating back on _nanims
                 if (_barriers.isEmpty()) {
                     _accum = _nanims;
@@ -325,6 +450,8 @@ public abstract class Animator
         protected List<Animation> _nanims = new ArrayList<Animation>();
         protected List<Animation> _accum = _nanims;
         protected List<Barrier> _barriers = new ArrayList<Barrier>();
+        protected final TweenBatch _batch;
+        protected final Pool _pool;
     }
 
     /** Implementation details, avert your eyes. */
@@ -48,6 +48,16 @@ public class Flicker extends Pointer.Adapter
         _max = max;
     }
 
+    /**
+     * Updates the minimum and maximum values, for example when the size of the flickable entity
+     * changes. The current position is clamped into the new range.
+     */
+    public void setRange (float min, float max) {
+        _min = min;
+        _max = max;
+        position = MathUtil.clamp(position, min, max);
+    }
+
     /** This must be called every frame with {@link Game#update}'s delta. */
     public void update (float delta) {
         if (_vel != 0) {
@@ -141,7 +151,7 @@ public class Flicker extends Pointer.Adapter
         return 5;
     }
 
-    protected final float _min, _max;
+    protected float _min, _max;
 
     protected float _vel, _accel;
     protected float _origPos, _start, _cur, _prev;
@@ -0,0 +1,178 @@
+//
+// Triple Play - utilities for use in PlayN-based games
+// Copyright (c) 2011, Three Rings Design, Inc. - All rights reserved.
+// http://github.com/threerings/tripleplay/blob/master/LICENSE
+
+package tripleplay.anim;
+
+import java.util.List;
+
+import playn.core.Layer;
+
+import tripleplay.util.Interpolator;
+
+/**
+ * Applies a collection of simple layer tweens ({@link Animation.One} and {@link Animation.Two}
+ * instances that target a {@link Animation.Prop} of a layer) in a single pass. The state of each
+ * tween is copied into parallel arrays when it starts, and all tweens are then updated in one
+ * tight loop which writes directly to the target layers. Used by {@link Animator#createBatched}.
+ */
+class TweenBatch
+{
+    /**
+     * Adds the supplied (just initialized) animation to this batch, if it is a layer tween.
+     * @return true if the animation was added, false if it must be run normally.
+     */
+    public boolean add (Animation anim) {
+        if (anim instanceof Animation.One) {
+            Animation.One one = (Animation.One)anim;
+            if (one._layer == null) return false;
+            int idx = append(one, one._layer, one._interp, one._duration);
+            _xprops[idx] = one._prop;
+            _yprops[idx] = null;
+            _fromx[idx] = one._from;
+            _tox[idx] = one._to;
+            return true;
+
+        } else if (anim instanceof Animation.Two) {
+            Animation.Two two = (Animation.Two)anim;
+            if (two._layer == null) return false;
+            int idx = append(two, two._layer, two._interp, two._duration);
+            _xprops[idx] = two._xprop;
+            _yprops[idx] = two._yprop;
+            _fromx[idx] = two._fromx;
+            _tox[idx] = two._tox;
+            _fromy[idx] = two._fromy;
+            _toy[idx] = two._toy;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if this batch contains no active tweens.
+     */
+    public boolean isEmpty () {
+        return _count == 0;
+    }
+
+    /**
+     * Returns the number of active tweens in this batch.
+     */
+    public int size () {
+        return _count;
+    }
+
+    /**
+     * Updates all tweens in this batch. Completed and cancelled tweens are removed. Completed
+     * tweens which have animations chained onto them are added to {@code chained}, so that the
+     * remainder of their chain can be run normally.
+     */
+    public void update (float time, List<Animation> chained) {
+        int live = 0;
+        for (int ii = 0, ll = _count; ii < ll; ii++) {
+            Animation anim = _anims[ii];
+            if (anim._current != anim) continue; // cancelled
+
+            Layer layer = _layers[ii];
+            Animation.Prop yprop = _yprops[ii];
+            float dt = time - _starts[ii], duration = _durations[ii];
+            if (dt < duration) {
+                Interpolator interp = _interps[ii];
+                float fromx = _fromx[ii];
+                _xprops[ii].set(layer, interp.apply(fromx, _tox[ii]-fromx, dt, duration));
+                if (yprop != null) {
+                    float fromy = _fromy[ii];
+                    yprop.set(layer, interp.apply(fromy, _toy[ii]-fromy, dt, duration));
+                }
+                if (live != ii) move(ii, live);
+                live++;
+
+            } else {
+                _xprops[ii].set(layer, _tox[ii]);
+                if (yprop != null) yprop.set(layer, _toy[ii]);
+                // start the next animation in the chain, accounting for overflow
+                if (anim.advance(time + duration - dt)) chained.add(anim);
+            }
+        }
+
+        // clear out the references held by the now unused tail of our arrays
+        for (int ii = live; ii < _count; ii++) {
+            _anims[ii] = null;
+            _layers[ii] = null;
+            _xprops[ii] = _yprops[ii] = null;
+            _interps[ii] = null;
+        }
+        _count = live;
+    }
+
+    protected int append (Animation anim, Layer layer, Interpolator interp, float duration) {
+        if (_count == _anims.length) grow(_count * 2);
+        int idx = _count++;
+        _anims[idx] = anim;
+        _layers[idx] = layer;
+        _starts[idx] = anim._start;
+        _durations[idx] = duration;
+        _interps[idx] = interp;
+        return idx;
+    }
+
+    protected void move (int from, int to) {
+        _anims[to] = _anims[from];
+        _layers[to] = _layers[from];
+        _xprops[to] = _xprops[from];
+        _yprops[to] = _yprops[from];
+        _starts[to] = _starts[from];
+        _durations[to] = _durations[from];
+        _interps[to] = _interps[from];
+        _fromx[to] = _fromx[from];
+        _tox[to] = _tox[from];
+        _fromy[to] = _fromy[from];
+        _toy[to] = _toy[from];
+    }
+
+    protected void grow (int size) {
+        Animation[] anims = new Animation[size];
+        System.arraycopy(_anims, 0, anims, 0, _count);
+        _anims = anims;
+        Layer[] layers = new Layer[size];
+        System.arraycopy(_layers, 0, layers, 0, _count);
+        _layers = layers;
+        _xprops = grow(_xprops, size);
+        _yprops = grow(_yprops, size);
+        _starts = grow(_starts, size);
+        _durations = grow(_durations, size);
+        _fromx = grow(_fromx, size);
+        _tox = grow(_tox, size);
+        _fromy = grow(_fromy, size);
+        _toy = grow(_toy, size);
+        Interpolator[] interps = new Interpolator[size];
+        System.arraycopy(_interps, 0, interps, 0, _count);
+        _interps = interps;
+    }
+
+    protected Animation.Prop[] grow (Animation.Prop[] props, int size) {
+        Animation.Prop[] nprops = new Animation.Prop[size];
+        System.arraycopy(props, 0, nprops, 0, _count);
+        return nprops;
+    }
+
+    protected float[] grow (float[] values, int size) {
+        float[] nvalues = new float[size];
+        System.arraycopy(values, 0, nvalues, 0, _count);
+        return nvalues;
+    }
+
+    protected int _count;
+    protected Animation[] _anims = new Animation[INITIAL_CAPACITY];
+    protected Layer[] _layers = new Layer[INITIAL_CAPACITY];
+    protected Animation.Prop[] _xprops = new Animation.Prop[INITIAL_CAPACITY];
+    protected Animation.Prop[] _yprops = new Animation.Prop[INITIAL_CAPACITY];
+    protected float[] _starts = new float[INITIAL_CAPACITY];
+    protected float[] _durations = new float[INITIAL_CAPACITY];
+    protected Interpolator[] _interps = new Interpolator[INITIAL_CAPACITY];
+    protected float[] _fromx = new float[INITIAL_CAPACITY], _tox = new float[INITIAL_CAPACITY];
+    protected float[] _fromy = new float[INITIAL_CAPACITY], _toy = new float[INITIAL_CAPACITY];
+
+    protected static final int INITIAL_CAPACITY = 16;
+}
@@ -136,6 +136,42 @@ public abstract class Background
      */
     protected abstract Instance instantiate (IDimension size);
 
+    /**
+     * Returns an instance of this background at the supplied size, added to {@code parent}. If
+     * {@code inst} was instantiated from this background (and is {@link #reusable}), it is reused,
+     * being resized in place if its size differs and it supports doing so. Otherwise it is destroyed and a new instance is
+     * created. Returns null (having destroyed {@code inst}) if the supplied size is empty.
+     */
+    protected Instance reinstantiate (Instance inst, IDimension size, GroupLayer parent) {
+        if (inst != null) {
+            if (reusable(inst) && size.width() > 0 && size.height() > 0) {
+                if (inst._size.width == size.width() && inst._size.height == size.height()) {
+                    return inst;
+                }
+                if (inst.resize(size)) {
+                    inst._size.setSize(size);
+                    return inst;
+                }
+            }
+            inst.destroy();
+        }
+        if (size.width() <= 0 || size.height() <= 0) return null;
+        inst = instantiate(size);
+        inst._owner = this;
+        inst._size.setSize(size);
+        inst.addTo(parent);
+        return inst;
+    }
+
+    /**
+     * Returns whether the supplied instance may be reused by {@link #reinstantiate}. By default,
+     * any instance created by this background may be. Backgrounds whose configuration determines
+     * the kind of instance they create should also check that it has not since changed.
+     */
+    protected boolean reusable (Instance inst) {
+        return inst._owner == this;
+    }
+
     protected static Layer createSolidLayer (final int color, final float width, final float height) {
         return PlayN.graphics().createImmediateLayer(new ImmediateLayer.Renderer() {
             public void render (Surface surf) {
@@ -144,6 +180,15 @@ public abstract class Background
         });
     }
 
+    /** Creates a solid layer that fills the supplied size, which may subsequently change. */
+    protected static Layer createSolidLayer (final int color, final IDimension size) {
+        return PlayN.graphics().createImmediateLayer(new ImmediateLayer.Renderer() {
+            public void render (Surface surf) {
+                surf.setFillColor(color).fillRect(0, 0, size.width(), size.height());
+            }
+        });
+    }
+
     protected static Layer createTiledLayer (Image image, float width, float height) {
         ImageLayer layer = PlayN.graphics().createImageLayer(image);
         layer.setRepeatX(true);
@@ -159,6 +204,17 @@ public abstract class Background
 
         /** Disposes of this background instance when it is no longer valid/needed. */
         public abstract void destroy ();
+
+        /** Resizes this background instance in place, if possible. Returns false if the instance
+         * cannot be resized, in which case it will be destroyed and replaced. */
+        public boolean resize (IDimension size) {
+            return false;
+        }
+
+        /** The background from which we were instantiated, and our current size. These are
+         * maintained by {@link Background#reinstantiate}. */
+        protected Background _owner;
+        protected final Dimension _size = new Dimension();
     }
 
     protected static class LayerInstance extends Instance {
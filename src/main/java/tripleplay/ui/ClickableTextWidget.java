@@ -36,14 +36,14 @@ public abstract class ClickableTextWidget<T extends ClickableTextWidget<T>> exte
     /** Called when the mouse is clicked on this widget. */
     protected void onPress () {
         set(Flag.SELECTED, true);
-        invalidate();
+        modeChanged();
     }
 
     /** Called as the user drags the pointer around with the widget depressed. */
     protected void onHover (boolean inBounds) {
         if (inBounds != isSelected()) {
             set(Flag.SELECTED, inBounds);
-            invalidate();
+            modeChanged();
         }
     }
 
@@ -52,7 +52,7 @@ public abstract class ClickableTextWidget<T extends ClickableTextWidget<T>> exte
     protected void onRelease () {
         if (isSelected()) {
             set(Flag.SELECTED, false);
-            invalidate();
+            modeChanged();
             onClick();
         }
     }
@@ -5,12 +5,13 @@
 
 package tripleplay.ui;
 
-import playn.core.PlayN;
 import playn.core.TextFormat;
 import playn.core.TextLayout;
 
 import pythagoras.f.Dimension;
 
+import tripleplay.util.TextLayoutCache;
+
 /**
  * Provides various user interface constraints.
  */
@@ -141,7 +142,7 @@ public class Constraints
 
         @Override public void addTextSize (Dimension tsize, TextLayout layout) {
             TextFormat format = Style.createTextFormat(_elem);
-            addTextSize(tsize, layout, PlayN.graphics().layoutText(_tmpl, format));
+            addTextSize(tsize, layout, TextLayoutCache.SHARED.layout(_tmpl, format));
         }
 
         protected abstract void addTextSize (
@@ -160,8 +160,7 @@ public abstract class Element<T extends Element<T>>
     public T setEnabled (boolean enabled) {
         if (enabled != isEnabled()) {
             set(Flag.ENABLED, enabled);
-            clearLayoutData();
-            invalidate();
+            modeChanged();
         }
         return asT();
     }
@@ -194,6 +193,8 @@ public abstract class Element<T extends Element<T>>
             set(Flag.VISIBLE, visible);
             layer.setVisible(visible);
             invalidate();
+            // our preferred size is unchanged, but our parent must make (or reclaim) our space
+            if (_parent != null) _parent.invalidate();
         }
         return asT();
     }
@@ -287,15 +288,55 @@ public abstract class Element<T extends Element<T>>
     protected void invalidate () {
         if (isSet(Flag.VALID)) {
             set(Flag.VALID, false);
-            // note that our preferred size and background are no longer valid
+            // note that our preferred sizes and background are no longer valid, but keep our old
+            // preferred sizes around so that we can tell whether our parent also needs relayout;
+            // the other sizes are double buffered so that measuring anew does not clobber them
+            _oldPreferredSize = _preferredSize;
             _preferredSize = null;
-            // invalidate our parent if we've got one
-            if (_parent != null) {
-                _parent.invalidate();
-            }
+            Dimension[] oprefs = _oldOtherPrefs;
+            float[] ohints = _oldOtherPrefHints;
+            _oldOtherPrefs = _otherPrefs;
+            _oldOtherPrefHints = _otherPrefHints;
+            _oldOtherPrefCount = _otherPrefCount;
+            _otherPrefs = oprefs;
+            _otherPrefHints = ohints;
+            _otherPrefCount = 0;
+            // if our parent is already invalid, it will validate us when it is validated
+            if (_parent != null && !_parent.isSet(Flag.VALID)) return;
+            // otherwise let our root decide (at validation time) whether our parent must also be
+            // laid out again; if we're not in a hierarchy, simply invalidate our parent
+            Root root = root();
+            if (root != null) root.scheduleValidation(this);
+            else if (_parent != null) _parent.invalidate();
         }
     }
 
+    /**
+     * An element should call this method when it must recreate its visualization, but knows that
+     * the change that requires it cannot affect its size (a change of color, say). Unlike {@link
+     * #invalidate}, this neither discards its preferred size nor involves its ancestors: the
+     * element is simply laid out again, at its current size, when its root is next validated.
+     */
+    protected void invalidatePaint () {
+        if (!isSet(Flag.VALID) || isSet(Flag.REPAINT)) return; // layout is already pending
+        Root root = root();
+        if (root == null) invalidate();
+        else {
+            set(Flag.REPAINT, true);
+            root.scheduleValidation(this);
+        }
+    }
+
+    /**
+     * Called when this element's enabled or selected state changes. This may select different
+     * styles, which by default requires full invalidation. Elements that can tell that their size
+     * is unaffected may instead {@link #invalidatePaint}.
+     */
+    protected void modeChanged () {
+        clearLayoutData();
+        invalidate();
+    }
+
     /**
      * Does whatever this element needs to validate itself. This may involve recomputing
      * visualizations, or laying out children, or anything else.
@@ -303,10 +344,45 @@ public abstract class Element<T extends Element<T>>
     protected void validate () {
         if (!isSet(Flag.VALID)) {
             layout();
+            _layoutCount++;
             set(Flag.VALID, true);
+            set(Flag.REPAINT, false);
+        } else if (isSet(Flag.REPAINT)) {
+            // our size is unchanged, so we need only lay ourselves out (and thus render) again
+            set(Flag.REPAINT, false);
+            layout();
+            _layoutCount++;
         }
     }
 
+    /**
+     * Recomputes this (invalid) element's preferred sizes, using each set of hints with which they
+     * were last computed, and returns true if any differs from the size it had when this element
+     * was invalidated. If none does, this element can be laid out again at its current size
+     * without involving its parent.
+     */
+    protected boolean preferredSizeChanged () {
+        if (_oldPreferredSize == null) return true;
+        IDimension psize = preferredSize(_prefHintX, _prefHintY);
+        boolean changed = !_oldPreferredSize.equals(psize);
+        // our parent may also have measured us with other hints, and may lay us out accordingly
+        for (int ii = 0; ii < _oldOtherPrefCount && !changed; ii++) {
+            IDimension opsize = preferredSize(
+                _oldOtherPrefHints[2*ii], _oldOtherPrefHints[2*ii+1]);
+            changed = !_oldOtherPrefs[ii].equals(opsize);
+        }
+        if (changed) {
+            // our parent will request our preferred size anew, with its own hints
+            _preferredSize = null;
+            _otherPrefCount = 0;
+            clearLayoutData();
+            return true;
+        }
+        // as with setSize, layout data computed for our preferred size may not match our size
+        if (!_size.equals(psize)) clearLayoutData();
+        return false;
+    }
+
     /**
      * Returns the root of this element's hierarchy, or null if the element is not currently added
      * to a hierarchy.
@@ -334,7 +410,8 @@ public abstract class Element<T extends Element<T>>
     }
 
     /**
-     * Returns this element's preferred size, potentially recomputing it if needed.
+     * Returns this element's preferred size, potentially recomputing it if needed. Sizes are cached
+     * (until this element is invalidated) according to the hints with which they were computed.
      *
      * @param hintX if non-zero, an indication that the element will be constrained in the x
      * direction to the specified width.
@@ -343,10 +420,44 @@ public abstract class Element<T extends Element<T>>
      */
     protected IDimension preferredSize (float hintX, float hintY) {
         if (_preferredSize == null) {
-            _preferredSize = computeSize(hintX, hintY);
-            if (_constraint != null) _constraint.adjustPreferredSize(_preferredSize, hintX, hintY);
+            _prefHintX = hintX;
+            _prefHintY = hintY;
+            _preferredSize = computePreferredSize(hintX, hintY);
+            return _preferredSize;
         }
-        return _preferredSize;
+        if (hintX == _prefHintX && hintY == _prefHintY) return _preferredSize;
+
+        // layouts often measure an element with more than one set of hints, so we also cache the
+        // sizes computed for the most recent few other hints
+        for (int ii = 0; ii < _otherPrefCount; ii++) {
+            if (_otherPrefHints[2*ii] == hintX && _otherPrefHints[2*ii+1] == hintY) {
+                return _otherPrefs[ii];
+            }
+        }
+        // our layout data may be specific to the hints with which it was computed, so compute this
+        // size from scratch, and then discard the layout data specific to these hints
+        clearLayoutData();
+        Dimension psize = computePreferredSize(hintX, hintY);
+        clearLayoutData();
+        if (_otherPrefs == null) {
+            _otherPrefs = new Dimension[OTHER_PREFS];
+            _otherPrefHints = new float[2*OTHER_PREFS];
+        }
+        int slot = (_otherPrefCount < OTHER_PREFS) ? _otherPrefCount++ :
+            (_nextOtherPref++ % OTHER_PREFS);
+        _otherPrefs[slot] = psize;
+        _otherPrefHints[2*slot] = hintX;
+        _otherPrefHints[2*slot+1] = hintY;
+        return psize;
+    }
+
+    /**
+     * Computes this element's preferred size for the supplied hints and applies its constraint.
+     */
+    protected Dimension computePreferredSize (float hintX, float hintY) {
+        Dimension psize = computeSize(hintX, hintY);
+        if (_constraint != null) _constraint.adjustPreferredSize(psize, hintX, hintY);
+        return psize;
     }
 
     /**
@@ -405,13 +516,29 @@ public abstract class Element<T extends Element<T>>
     protected int _flags = Flag.VISIBLE.mask | Flag.ENABLED.mask;
     protected Elements<?> _parent;
     protected Dimension _preferredSize;
+    protected Dimension _oldPreferredSize;
+    protected float _prefHintX, _prefHintY;
+    /** Preferred sizes computed with hints other than the above, and those hints (as x, y). */
+    protected Dimension[] _otherPrefs;
+    protected float[] _otherPrefHints;
+    protected int _otherPrefCount, _nextOtherPref;
+    /** Our other preferred sizes, as they were when we were last invalidated. */
+    protected Dimension[] _oldOtherPrefs;
+    protected float[] _oldOtherPrefHints;
+    protected int _oldOtherPrefCount;
     protected Dimension _size = new Dimension();
     protected Styles _styles = Styles.none();
     protected Layout.Constraint _constraint;
     protected Signal<Boolean> _hierarchyChanged;
 
+    /** The total number of times any element has been laid out. See {@link Interface#paint}. */
+    protected static int _layoutCount;
+
+    /** The number of preferred sizes cached for hints other than the primary hints. */
+    protected static final int OTHER_PREFS = 3;
+
     protected static enum Flag {
-        VALID(1 << 0), ENABLED(1 << 1), VISIBLE(1 << 2), SELECTED(1 << 3);
+        VALID(1 << 0), ENABLED(1 << 1), VISIBLE(1 << 2), SELECTED(1 << 3), REPAINT(1 << 4);
 
         public final int mask;
 
@@ -57,6 +57,7 @@ public abstract class Elements<T extends Elements<T>> extends Element<T>
      */
     public T setStylesheet (Stylesheet sheet) {
         _sheet = sheet;
+        Styles.sheetsChanged();
         return asT();
     }
 
@@ -68,12 +69,46 @@ public abstract class Elements<T extends Elements<T>> extends Element<T>
         return _children.get(index);
     }
 
+    /**
+     * Starts a batch of changes to our children. Until the batch is committed, changes neither
+     * invalidate us nor emit {@link #childAdded} or {@link #childRemoved}. Batches may be nested;
+     * only the outermost {@link #commitBatch} takes effect.
+     */
+    public T beginBatch () {
+        _batchDepth++;
+        return asT();
+    }
+
+    /**
+     * Commits a batch of changes started by {@link #beginBatch}. If our children changed, we are
+     * invalidated (once), and the net changes are reported: removals first, then additions. A
+     * child that was added and then removed during the batch (or vice versa) is not reported.
+     */
+    public T commitBatch () {
+        if (_batchDepth == 0) throw new IllegalStateException("No batch in progress");
+        if (--_batchDepth > 0 || !_batchChanged) return asT();
+        _batchChanged = false;
+        // copy our changes out, in case a listener starts another batch
+        Element<?>[] removed = _batchRemoved.toArray(new Element<?>[_batchRemoved.size()]);
+        Element<?>[] added = _batchAdded.toArray(new Element<?>[_batchAdded.size()]);
+        _batchRemoved.clear();
+        _batchAdded.clear();
+        invalidate();
+        for (Element<?> child : removed) _childRemoved.emit(child);
+        for (Element<?> child : added) _childAdded.emit(child);
+        return asT();
+    }
+
     public T add (Element<?>... children) {
-        _children.addAll(Arrays.asList(children));
-        for (Element<?> child : children) {
-            didAdd(child);
+        beginBatch();
+        try {
+            _children.addAll(Arrays.asList(children));
+            for (Element<?> child : children) {
+                didAdd(child);
+            }
+        } finally {
+            commitBatch();
         }
-        invalidate();
         return asT();
     }
 
@@ -81,21 +116,18 @@ public abstract class Elements<T extends Elements<T>> extends Element<T>
         // TODO: check if child is already added here? has parent?
         _children.add(index, child);
         didAdd(child);
-        invalidate();
         return asT();
     }
 
     public void remove (Element<?> child) {
         if (_children.remove(child)) {
             didRemove(child, false);
-            invalidate();
         }
     }
 
     public void destroy (Element<?> child) {
         if (_children.remove(child)) {
             didRemove(child, true);
-            invalidate();
         } else {
             child.layer.destroy();
         }
@@ -103,26 +135,32 @@ public abstract class Elements<T extends Elements<T>> extends Element<T>
 
     public void removeAt (int index) {
         didRemove(_children.remove(index), false);
-        invalidate();
     }
 
     public void destroyAt (int index) {
         didRemove(_children.remove(index), true);
-        invalidate();
     }
 
     public void removeAll () {
-        while (!_children.isEmpty()) {
-            removeAt(_children.size()-1);
+        beginBatch();
+        try {
+            while (!_children.isEmpty()) {
+                removeAt(_children.size()-1);
+            }
+        } finally {
+            commitBatch();
         }
-        invalidate();
     }
 
     public void destroyAll () {
-        while (!_children.isEmpty()) {
-            destroyAt(_children.size()-1);
+        beginBatch();
+        try {
+            while (!_children.isEmpty()) {
+                destroyAt(_children.size()-1);
+            }
+        } finally {
+            commitBatch();
         }
-        invalidate();
     }
 
     /** Returns an unmodifiable iterator over the children of this Elements.  */
@@ -131,20 +169,48 @@ public abstract class Elements<T extends Elements<T>> extends Element<T>
     }
 
     protected void didAdd (Element<?> child) {
+        clearMetrics();
         layer.add(child.layer);
         if (isAdded()) child.wasAdded(this);
-        _childAdded.emit(child);
+        if (_batchDepth == 0) {
+            invalidate();
+            _childAdded.emit(child);
+        } else {
+            _batchChanged = true;
+            if (!removeLast(_batchRemoved, child)) _batchAdded.add(child);
+        }
     }
 
     protected void didRemove (Element<?> child, boolean destroy) {
+        clearMetrics();
         layer.remove(child.layer);
         if (destroy) child.layer.destroy();
         if (isAdded()) child.wasRemoved();
-        _childRemoved.emit(child);
+        if (_batchDepth == 0) {
+            invalidate();
+            _childRemoved.emit(child);
+        } else {
+            _batchChanged = true;
+            if (!removeLast(_batchAdded, child)) _batchRemoved.add(child);
+        }
+    }
+
+    /** Removes the last occurrence of {@code elem} from {@code elems}, searching from the end as
+     * the most recent change is the most likely to be undone. Returns true if one was found. */
+    protected static boolean removeLast (List<Element<?>> elems, Element<?> elem) {
+        for (int ii = elems.size()-1; ii >= 0; ii--) {
+            if (elems.get(ii) == elem) {
+                elems.remove(ii);
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override protected void wasAdded (Elements<?> parent) {
         super.wasAdded(parent);
+        // our stylesheet now applies in a different context
+        if (_sheet != null) Styles.sheetsChanged();
         for (Element<?> child : _children) {
             child.wasAdded(this);
         }
@@ -152,6 +218,7 @@ public abstract class Elements<T extends Elements<T>> extends Element<T>
 
     @Override protected void wasRemoved () {
         super.wasRemoved();
+        if (_sheet != null) Styles.sheetsChanged();
         for (Element<?> child : _children) {
             child.wasRemoved();
         }
@@ -175,11 +242,7 @@ public abstract class Elements<T extends Elements<T>> extends Element<T>
         LayoutData ldata = computeLayout(_size.width, _size.height);
 
         // prepare our background
-        if (_bginst != null) _bginst.destroy();
-        if (_size.width > 0 && _size.height > 0) {
-            _bginst = ldata.bg.instantiate(_size);
-            _bginst.addTo(layer);
-        }
+        _bginst = ldata.bg.reinstantiate(_bginst, _size, layer);
 
         // layout our children
         _layout.layout(this, ldata.bg.left, ldata.bg.top,
@@ -197,6 +260,11 @@ public abstract class Elements<T extends Elements<T>> extends Element<T>
         _ldata = null;
     }
 
+    /** Discards any metrics retained by our layout, which are stale if our children change. */
+    protected void clearMetrics () {
+        if (_ldata != null) _ldata.metrics = null;
+    }
+
     protected LayoutData computeLayout (float hintX, float hintY) {
         if (_ldata == null) {
             _ldata = new LayoutData();
@@ -208,6 +276,9 @@ public abstract class Elements<T extends Elements<T>> extends Element<T>
 
     protected static class LayoutData {
         public Background bg;
+        /** Metrics retained by our layout, and the size for which they were computed. */
+        public Object metrics;
+        public float metricsWidth, metricsHeight;
     }
 
     protected final Layout _layout;
@@ -216,7 +287,16 @@ public abstract class Elements<T extends Elements<T>> extends Element<T>
     protected final Signal<Element<?>> _childAdded = Signal.create();
     protected final Signal<Element<?>> _childRemoved = Signal.create();
 
+    /** The depth of batches in progress, whether our children changed during the current batch,
+     * and the net additions and removals to be reported when it is committed. */
+    protected int _batchDepth;
+    protected boolean _batchChanged;
+    protected final List<Element<?>> _batchAdded = new ArrayList<Element<?>>();
+    protected final List<Element<?>> _batchRemoved = new ArrayList<Element<?>>();
+
     protected Stylesheet _sheet;
+    /** Stylesheet values cached on behalf of the elements in our subtree, if we have a sheet. */
+    protected Styles.SheetCache _sheetCache;
 
     protected LayoutData _ldata;
     protected Background.Instance _bginst;
@@ -22,6 +22,8 @@ import react.Signal;
 import react.UnitSlot;
 import react.Value;
 
+import tripleplay.util.TextLayoutCache;
+
 public class Field extends TextWidget<Field>
 {
     /** The text displayed by this widget. */
@@ -124,17 +126,18 @@ public class Field extends TextWidget<Field>
         Point parentEvent = new Point(x, y);
         float clickX = (_tglyph.layer() == null) ? 0 :
             Layer.Util.parentToLayer(_tglyph.layer(), parentEvent, parentEvent).x();
-        int cursor = 0;
-        float cx = 0;
-        while (cursor < text.get().length()) {
-            float ncx = getCursorX(cursor);
-            if (clickX > ncx) cursor++;
-            else {
-                if (clickX - cx < ncx - clickX) cursor--;
-                break;
-            }
-            cx = ncx;
+        int length = text.get().length();
+        updateAdvances(length);
+        // find the first cursor position at or beyond the click, then back up one position if the
+        // click was closer to the preceding position
+        int low = 0, high = length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (_advances[mid] < clickX) low = mid + 1;
+            else high = mid;
         }
+        int cursor = low;
+        if (cursor > 0 && clickX - _advances[cursor-1] < _advances[cursor] - clickX) cursor--;
         moveCursor(cursor);
         startFocus(root, cursor);
     }
@@ -165,15 +168,42 @@ public class Field extends TextWidget<Field>
 
     protected float getCursorX (int cursor) {
         if (cursor == 0) return 0;
-        // Get the width up to the cursor with an additional 'b' past that. If the cursor is right
-        // past a space, layoutText will trim that space before getting the width. Adding in a 'b'
-        // and subtracting it out later will get the width with spaces. Why 'b'? It's my favorite
-        // letter, yo.
-        TextFormat format = Style.createTextFormat(this);
-        String withB = text.get().substring(0, cursor) + "b";
-        TextLayout withBL = PlayN.graphics().layoutText(withB, format);
-        TextLayout bL = PlayN.graphics().layoutText("b", format);
-        return withBL.width() - bL.width() - 1;
+        updateAdvances(cursor);
+        return _advances[cursor];
+    }
+
+    /**
+     * Ensures that {@link #_advances} contains the x position of every cursor position up to and
+     * including {@code cursor}. The position of a cursor depends only on the text that precedes
+     * it, so positions are retained across edits that follow them and computed only as needed.
+     */
+    protected void updateAdvances (int cursor) {
+        String ctext = text.get();
+        if (_advFormat == null) {
+            _advFormat = Style.createTextFormat(this);
+            _bwidth = PlayN.graphics().layoutText("b", _advFormat).width();
+            _advCount = 1;
+        }
+        if (!ctext.equals(_advText)) {
+            int same = 0, max = Math.min(ctext.length(), _advText.length());
+            while (same < max && ctext.charAt(same) == _advText.charAt(same)) same++;
+            _advCount = Math.min(_advCount, same+1);
+            _advText = ctext;
+        }
+        if (_advances.length <= ctext.length()) {
+            float[] advances = new float[Math.max(ctext.length()+1, _advances.length*2)];
+            System.arraycopy(_advances, 0, advances, 0, _advCount);
+            _advances = advances;
+        }
+        for (; _advCount <= cursor; _advCount++) {
+            // Get the width up to the cursor with an additional 'b' past that. If the cursor is
+            // right past a space, layoutText will trim that space before getting the width.
+            // Adding in a 'b' and subtracting it out later will get the width with spaces. Why
+            // 'b'? It's my favorite letter, yo.
+            String withB = ctext.substring(0, _advCount) + "b";
+            TextLayout withBL = PlayN.graphics().layoutText(withB, _advFormat);
+            _advances[_advCount] = withBL.width() - _bwidth - 1;
+        }
     }
 
     @Override protected void createTextLayer (LayoutData ldata, float tx, float ty,
@@ -181,6 +211,12 @@ public class Field extends TextWidget<Field>
                                               float availWidth, float availHeight) {
         super.createTextLayer(ldata, tx, ty, twidth, theight, availWidth, availHeight);
 
+        // if our styles have changed, our cursor positions must be recomputed
+        if (_advFormat != null &&
+            !TextLayoutCache.sameFormat(_advFormat, Style.createTextFormat(this))) {
+            _advFormat = null;
+        }
+
         // note some bits for our cursor
         _cx = tx; _cy = ty;
         _cheight = theight;
@@ -277,6 +313,13 @@ public class Field extends TextWidget<Field>
     protected float _cheight;
     protected int _ccolor;
 
+    // the x position of each cursor position in our text, computed lazily as needed
+    protected float[] _advances = new float[1];
+    protected int _advCount;
+    protected String _advText = "";
+    protected TextFormat _advFormat;
+    protected float _bwidth;
+
     // used when popping up a text entry interface on mobile platforms
     protected Keyboard.TextType _textType = Keyboard.TextType.DEFAULT;
     protected String _popupLabel;
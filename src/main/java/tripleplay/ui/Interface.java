@@ -61,9 +61,11 @@ public class Interface
      * "Paints" the elements in this interface. Must be called from {@link Game#update}.
      */
     public void paint (float alpha) {
+        int layouts = Element._layoutCount;
         for (int ii = 0, ll = _roots.size(); ii < ll; ii++) {
             _roots.get(ii).validate();
         }
+        _lastLayoutCount = Element._layoutCount - layouts;
 
         // run any deferred actions
         if (!_actions.isEmpty()) {
@@ -79,6 +81,15 @@ public class Interface
         }
     }
 
+    /**
+     * Returns the number of elements that were laid out during the most recent call to {@link
+     * #paint}. Only elements that were invalidated (or need repainting), or whose children's
+     * preferred sizes changed, are laid out, so this is usually zero.
+     */
+    public int lastLayoutCount () {
+        return _lastLayoutCount;
+    }
+
     /**
      * Clears out the current focused component, if any.
      */
@@ -132,4 +143,5 @@ public class Interface
     protected final List<Root> _roots = new ArrayList<Root>();
     protected final List<Root> _dispatch = new ArrayList<Root>();
     protected final List<Runnable> _actions = new ArrayList<Runnable>();
+    protected int _lastLayoutCount;
 }
@@ -38,6 +38,31 @@ public abstract class Layout
     public abstract void layout (Elements<?> elems, float left, float top,
                                  float width, float height);
 
+    /**
+     * Retains metrics computed while measuring the supplied elements, which yielded a size of
+     * {@code width x height} (excluding insets). Elements are very often laid out at exactly the
+     * size they requested, in which case {@link #layout} can reuse the metrics via {@link
+     * #retainedMetrics} rather than computing them again. Retained metrics are discarded when the
+     * elements are laid out, or their children change.
+     */
+    protected void retainMetrics (Elements<?> elems, Object metrics, float width, float height) {
+        Elements.LayoutData ldata = elems._ldata;
+        if (ldata == null) return;
+        ldata.metrics = metrics;
+        ldata.metricsWidth = width;
+        ldata.metricsHeight = height;
+    }
+
+    /**
+     * Returns the metrics retained for the supplied elements, if they were computed for a size of
+     * {@code width x height}, or null.
+     */
+    protected Object retainedMetrics (Elements<?> elems, float width, float height) {
+        Elements.LayoutData ldata = elems._ldata;
+        if (ldata == null || ldata.metrics == null) return null;
+        return (ldata.metricsWidth == width && ldata.metricsHeight == height) ? ldata.metrics : null;
+    }
+
     // make Element.resolveStyle "visible" to custom layouts
     protected <V> V resolveStyle (Element<?> elem, Style<V> style) {
         return elem.resolveStyle(style);
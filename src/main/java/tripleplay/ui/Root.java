@@ -5,6 +5,9 @@
 
 package tripleplay.ui;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import playn.core.PlayN;
 
 import pythagoras.f.IDimension;
@@ -19,6 +22,7 @@ public class Root extends Elements<Root>
      * Sizes this root element to its preferred size.
      */
     public Root pack () {
+        propagateInvalidation();
         IDimension psize = preferredSize(0, 0);
         setSize(psize.width(), psize.height());
         return this;
@@ -28,6 +32,7 @@ public class Root extends Elements<Root>
      * Sizes this root element to the specified width and its preferred height.
      */
     public Root packToWidth (float width) {
+        propagateInvalidation();
         IDimension psize = preferredSize(width, 0);
         setSize(width, psize.height());
         return this;
@@ -37,6 +42,7 @@ public class Root extends Elements<Root>
      * Sizes this root element to the specified height and its preferred width.
      */
     public Root packToHeight (float height) {
+        propagateInvalidation();
         IDimension psize = preferredSize(0, height);
         setSize(psize.width(), height);
         return this;
@@ -70,7 +76,84 @@ public class Root extends Elements<Root>
         return this;
     }
 
+    /**
+     * Notes that the supplied element, which is in this root's hierarchy and whose parent is
+     * valid, has been invalidated (or needs repainting). It will be dealt with when this root is
+     * next validated.
+     */
+    protected void scheduleValidation (Element<?> elem) {
+        _dirty.add(elem);
+    }
+
+    /**
+     * Invalidates the ancestors of our invalid elements whose preferred sizes have changed. An
+     * invalid element's parent need only be laid out again if the element's preferred size has
+     * changed; invalidating the parent schedules it in turn (appending it to our dirty list), so
+     * propagation continues only as far as preferred sizes are changing. This must be done before
+     * our preferred size is used, as the preferred sizes cached by valid ancestors of changed
+     * elements are stale until it is.
+     */
+    protected void propagateInvalidation () {
+        for (int ii = 0; ii < _dirty.size(); ii++) {
+            Element<?> elem = _dirty.get(ii);
+            if (elem.isSet(Flag.VALID) || elem.root() != this) continue;
+            Elements<?> parent = elem._parent;
+            if (parent != null && parent.isSet(Flag.VALID) && elem.preferredSizeChanged()) {
+                parent.invalidate();
+            }
+        }
+    }
+
+    @Override protected void validate () {
+        if (_dirty.isEmpty()) {
+            super.validate();
+            return;
+        }
+
+        propagateInvalidation();
+        int count = _dirty.size();
+
+        // now lay out the topmost invalid elements (and repaint those that need only that); if
+        // we're invalid, that's just us
+        if (!isSet(Flag.VALID)) super.validate();
+        else {
+            for (int ii = 0; ii < count; ii++) {
+                Element<?> elem = _dirty.get(ii);
+                if (needsValidation(elem) && !hasInvalidParent(elem)) elem.validate();
+            }
+        }
+        // an element skipped above for having an invalid ancestor is not necessarily reached when
+        // that ancestor is laid out (not if the intervening elements keep their size, and thus
+        // remain valid), so validate any such element that remains invalid
+        for (int ii = 0; ii < count; ii++) {
+            Element<?> elem = _dirty.get(ii);
+            if (needsValidation(elem) && !hasInvalidParent(elem)) elem.validate();
+        }
+        // elements invalidated during layout remain scheduled for our next validation, as do any
+        // of the above whose ancestors were so invalidated
+        int kept = 0;
+        for (int ii = 0; ii < count; ii++) {
+            Element<?> elem = _dirty.get(ii);
+            if (needsValidation(elem)) _dirty.set(kept++, elem);
+        }
+        _dirty.subList(kept, count).clear();
+    }
+
+    protected boolean needsValidation (Element<?> elem) {
+        return (!elem.isSet(Flag.VALID) || elem.isSet(Flag.REPAINT)) && elem.root() == this;
+    }
+
+    protected static boolean hasInvalidParent (Element<?> elem) {
+        for (Elements<?> parent = elem._parent; parent != null; parent = parent._parent) {
+            if (!parent.isSet(Flag.VALID)) return true;
+        }
+        return false;
+    }
+
     protected final Interface _iface;
     protected boolean _valid;
     protected Element<?> _active;
+
+    /** Elements invalidated since we were last validated. See {@link #scheduleValidation}. */
+    protected final List<Element<?>> _dirty = new ArrayList<Element<?>>();
 }
@@ -26,11 +26,11 @@ public class Selector
             @Override public void onChange (Element<?> selected, Element<?> deselected) {
                 if (deselected != null) {
                     deselected.set(Element.Flag.SELECTED, false);
-                    deselected.invalidate();
+                    deselected.modeChanged();
                 }
                 if (selected != null) {
                     selected.set(Element.Flag.SELECTED, true);
-                    selected.invalidate();
+                    selected.modeChanged();
                 }
             }
         });
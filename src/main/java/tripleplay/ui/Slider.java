@@ -27,7 +27,8 @@ public class Slider extends Widget<Slider>
         _range = _max - _min;
         this.value.connect(new UnitSlot () {
             @Override public void onEmit () {
-                invalidate();
+                // our size does not depend on our value, so we need only move our thumb
+                positionThumb();
             }
         });
     }
@@ -41,15 +42,37 @@ public class Slider extends Widget<Slider>
     }
 
     @Override protected void layout () {
-        float width = _size.width;
-        _sglyph.prepare(width, _size.height);
-        render(_sglyph.canvas(), (value.get() - _min) / _range * width);
+        // the bar is rendered only when our size changes, and the thumb only once
+        if (_sglyph.canvas() == null || _barSize.width != _size.width ||
+            _barSize.height != _size.height) {
+            _barSize.setSize(_size);
+            _sglyph.prepare(_size.width, _size.height);
+            renderBar(_sglyph.canvas(), _size.width);
+        }
+        if (_tglyph.canvas() == null) {
+            _tglyph.prepare(THUMB_WIDTH, THUMB_HEIGHT);
+            renderThumb(_tglyph.canvas());
+        }
+        positionThumb();
     }
 
-    protected void render (Canvas canvas, float thumbCenterPixel) {
+    /** Renders the bar, which spans the supplied width, into the supplied canvas. */
+    protected void renderBar (Canvas canvas, float width) {
         canvas.setFillColor(0xFF000000);
-        canvas.fillRect(0, THUMB_HEIGHT, _size.width(), BAR_HEIGHT); // Bar
-        canvas.fillRect(thumbCenterPixel - THUMB_WIDTH / 2, 0, THUMB_WIDTH, THUMB_HEIGHT);
+        canvas.fillRect(0, THUMB_HEIGHT, width, BAR_HEIGHT);
+    }
+
+    /** Renders the thumb into the supplied canvas, which is {@link #THUMB_WIDTH} wide. */
+    protected void renderThumb (Canvas canvas) {
+        canvas.setFillColor(0xFF000000);
+        canvas.fillRect(0, 0, THUMB_WIDTH, THUMB_HEIGHT);
+    }
+
+    /** Moves the thumb layer to reflect our current value. */
+    protected void positionThumb () {
+        if (_tglyph.layer() == null) return; // not yet laid out
+        float thumbCenter = (value.get() - _min) / _range * _size.width;
+        _tglyph.layer().setTranslation(thumbCenter - THUMB_WIDTH / 2, 0);
     }
 
     @Override protected void onPointerStart (Pointer.Event event, float x, float y) {
@@ -73,7 +96,8 @@ public class Slider extends Widget<Slider>
     }
 
     protected final float _min, _max, _range;
-    protected final Glyph _sglyph = new Glyph();
+    protected final Glyph _sglyph = new Glyph(), _tglyph = new Glyph();
+    protected final Dimension _barSize = new Dimension();
 
     protected static final float BAR_HEIGHT = 5;
     protected static final float THUMB_HEIGHT = BAR_HEIGHT * 2, THUMB_WIDTH = 4;
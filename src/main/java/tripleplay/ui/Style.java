@@ -9,6 +9,8 @@ import playn.core.Font;
 import playn.core.PlayN;
 import playn.core.TextFormat;
 
+import tripleplay.util.GlyphAtlas;
+
 /**
  * Defines style properties for interface elements. Some style properties are inherited, such that
  * a property not specified in a leaf element will be inherited by the nearest parent for which the
@@ -158,6 +160,10 @@ public abstract class Style<V>
     /** The effect to use when rendering text, if any. Inherited. */
     public static final TextEffectStyle TEXT_EFFECT = new TextEffectStyle();
 
+    /** The atlas into which rendered text is packed, or null if each text widget should render
+     * its text into its own image. See {@link GlyphAtlas}. Inherited. */
+    public static final Style<GlyphAtlas> GLYPH_ATLAS = newStyle(true, (GlyphAtlas)null);
+
     /** The background for an element. Not inherited. */
     public static final Style<Background> BACKGROUND = newStyle(false, Background.blank());
 
@@ -170,6 +176,10 @@ public abstract class Style<V>
     /** Indicates whether or not this style property is inherited. */
     public final boolean inherited;
 
+    /** Uniquely identifies this style. Styles are numbered densely, in order of creation, which
+     * allows {@link Styles} to look up their bindings by direct array index. */
+    public final int id = _nextId++;
+
     /**
      * Creates a text format based on the supplied element's stylings.
      */
@@ -227,4 +237,7 @@ public abstract class Style<V>
 
     // TODO: make these configurable somehow/where
     protected static final int SHADOW_X = 2, SHADOW_Y = 2;
+
+    /** The id that will be assigned to the next style created. */
+    protected static int _nextId;
 }
@@ -6,11 +6,19 @@
 package tripleplay.ui;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * An immutable collection of styles. Used in builder-style to add, replace or remove styles.
  * Configure a group of styles and then apply them to an element via {@link Element#setStyles} or
  * {@link Element#addStyles}.
+ *
+ * <p>Styles instances are interned: structurally equal instances (that bind the same styles to
+ * equal values) are generally one and the same, as are their bindings, and the results of recent
+ * merges are remembered. Thus elements styled by the same code share their styles, rather than
+ * each holding a copy.</p>
  */
 public final class Styles
 {
@@ -77,13 +85,13 @@ public final class Styles
      * state. The receiver is not modified.
      */
     public <V> Styles clear (Style.Mode mode, Style<V> style) {
-        int index = Arrays.binarySearch(_bindings, new Binding<V>(style));
-        if (index < 0) return this;
-        @SuppressWarnings("unchecked") Binding<V> binding = (Binding<V>)_bindings[index];
+        Binding<V> binding = binding(style);
+        if (binding == null) return this;
+        int index = Arrays.binarySearch(_bindings, binding);
         Binding<?>[] nbindings = new Binding<?>[_bindings.length];
         System.arraycopy(_bindings, 0, nbindings, 0, nbindings.length);
         nbindings[index] = binding.clear(mode);
-        return new Styles(nbindings);
+        return intern(nbindings);
     }
 
     /**
@@ -91,14 +99,74 @@ public final class Styles
      * instances define a particular style, the supplied {@code styles} will take precedence.
      */
     public Styles merge (Styles styles) {
-        return merge(styles._bindings);
+        if (styles._bindings.length == 0) return this;
+        if (_bindings.length == 0) return styles;
+        MergeKey key = new MergeKey(this, styles);
+        Styles merged = _merges.get(key);
+        if (merged == null) _merges.put(key, merged = merge(styles._bindings));
+        return merged;
     }
 
     <V> V get (Binding<V> key, Element<?> elem) {
-        int index = Arrays.binarySearch(_bindings, key);
-        if (index < 0) return null;
-        @SuppressWarnings("unchecked") Binding<V> binding = (Binding<V>)_bindings[index];
-        return binding.get(elem);
+        return get(key.style, elem);
+    }
+
+    <V> V get (Style<V> style, Element<?> elem) {
+        Binding<V> binding = binding(style);
+        return (binding == null) ? null : binding.get(elem);
+    }
+
+    /**
+     * Returns our binding for the supplied style, or null.
+     */
+    <V> Binding<V> binding (Style<V> style) {
+        int id = style.id;
+        if (_byId == null) {
+            // our bound styles are too sparse for a table, so binary search our bindings instead
+            int low = 0, high = _bindings.length-1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1, midId = _bindings[mid].style.id;
+                if (midId < id) low = mid + 1;
+                else if (midId > id) high = mid - 1;
+                else {
+                    @SuppressWarnings("unchecked") Binding<V> binding = (Binding<V>)_bindings[mid];
+                    return binding;
+                }
+            }
+            return null;
+        }
+        int idx = id - _baseId;
+        if (idx < 0 || idx >= _byId.length) return null;
+        @SuppressWarnings("unchecked") Binding<V> binding = (Binding<V>)_byId[idx];
+        return binding;
+    }
+
+    /**
+     * Returns a new instance in which the inherited styles of {@code parent} back up the styles
+     * of this instance: where both define an inherited style, the parent's binding is consulted if
+     * ours yields no value for an element's current mode. Non-inherited parent styles are omitted.
+     */
+    Styles withInherited (Styles parent) {
+        Binding<?>[] pbindings = parent._bindings;
+        Binding<?>[] nbindings = new Binding<?>[_bindings.length + pbindings.length];
+        System.arraycopy(_bindings, 0, nbindings, 0, _bindings.length);
+        int count = _bindings.length, chained = 0;
+        for (Binding<?> pbinding : pbindings) {
+            if (!pbinding.style.inherited) continue;
+            int idx = Arrays.binarySearch(_bindings, pbinding);
+            if (idx < 0) nbindings[count++] = pbinding;
+            else {
+                @SuppressWarnings("unchecked") Binding<Object> ours =
+                    (Binding<Object>)nbindings[idx], theirs = (Binding<Object>)pbinding;
+                nbindings[idx] = new ChainedBinding<Object>(ours, theirs);
+                chained++;
+            }
+        }
+        if (count == _bindings.length && chained == 0) return this; // nothing inherited
+        Binding<?>[] sbindings = new Binding<?>[count];
+        System.arraycopy(nbindings, 0, sbindings, 0, count);
+        Arrays.sort(sbindings);
+        return intern(sbindings);
     }
 
     private Styles merge (Binding<?>[] obindings) {
@@ -127,30 +195,83 @@ public final class Styles
         }
         Arrays.sort(nbindings);
 
-        return new Styles(nbindings);
+        return intern(nbindings);
+    }
+
+    /**
+     * Returns the interned styles instance with the supplied (sorted) bindings, creating it if
+     * need be. The supplied array becomes the property of the interned instance.
+     */
+    private static Styles intern (Binding<?>[] bindings) {
+        if (bindings.length == 0) return _noneSingleton;
+        BindingsKey key = new BindingsKey(bindings);
+        Styles styles = _interned.get(key);
+        if (styles == null) {
+            // share equal bindings between instances as well
+            for (int ii = 0; ii < bindings.length; ii++) {
+                Binding<?> binding = _internedBindings.get(bindings[ii]);
+                if (binding == null) _internedBindings.put(bindings[ii], bindings[ii]);
+                else bindings[ii] = binding;
+            }
+            _interned.put(key, styles = new Styles(bindings));
+        }
+        return styles;
     }
 
     private Styles (Binding<?>[] bindings) {
         _bindings = bindings;
+        // our bindings are sorted by style id, so the first and last bound styles delimit our
+        // table; style ids are dense, so the table is usually small, but if we bind styles
+        // created far apart (a built-in style and an app style, say) we forgo the table
+        int count = bindings.length;
+        _baseId = (count == 0) ? 0 : bindings[0].style.id;
+        int span = (count == 0) ? 0 : bindings[count-1].style.id - _baseId + 1;
+        if (span <= MAX_SPAN_PER_BINDING * count) {
+            _byId = new Binding<?>[span];
+            for (Binding<?> binding : bindings) _byId[binding.style.id - _baseId] = binding;
+        }
     }
 
     static <V> V resolveStyle (Element<?> element, Style<V> style) {
         // first check for the style configured directly on the element
-        Binding<V> key = new Binding<V>(style);
-        V value = element.styles().<V>get(key, element);
+        V value = element.styles().<V>get(style, element);
         if (value != null) return value;
 
-        // now check for the style in the appropriate stylesheets
+        // now check for the style in the appropriate stylesheets; every element of a given class
+        // and mode beneath the closest group with a stylesheet will resolve the same value from
+        // the stylesheets, so we cache those values in said group
         Elements<?> group = (element instanceof Elements) ? (Elements<?>)element : element.parent();
+        while (group != null && group.stylesheet() == null) group = group.parent();
+        if (group != null) {
+            if (group._sheetCache == null) group._sheetCache = new SheetCache();
+            value = group._sheetCache.get(group, element, style);
+            if (value != null) return value;
+        }
+
+        // if we haven't found the style anywhere, return the global default
+        return style.getDefault(element);
+    }
+
+    /**
+     * Looks up the supplied style in the stylesheets of the supplied group and its ancestors.
+     * Returns null if no stylesheet provides a value.
+     */
+    static <V> V resolveSheetStyle (Elements<?> group, Element<?> element, Style<V> style) {
         for (; group != null; group = group.parent()) {
             Stylesheet sheet = group.stylesheet();
             if (sheet == null) continue;
-            value = sheet.<V>get(key, element.getClass(), element);
+            V value = sheet.<V>get(style, element.getClass(), element);
             if (value != null) return value;
         }
+        return null;
+    }
 
-        // if we haven't found the style anywhere, return the global default
-        return style.getDefault(element);
+    /**
+     * Notes that a stylesheet was changed, or a group with a stylesheet was added to or removed
+     * from the hierarchy, which invalidates all cached stylesheet values.
+     */
+    static void sheetsChanged () {
+        _sheetGeneration++;
     }
 
     static <V> Binding<V> newBinding (Style.Binding<V> binding, Style.Mode mode) {
@@ -213,20 +334,183 @@ public final class Styles
         }
 
         @Override public int compareTo (Binding<V> other) {
-            if (this.style == other.style) return 0;
-            int hc = this.style.hashCode(), ohc = other.style.hashCode();
-            assert(hc != ohc);
-            return (hc < ohc) ? -1 : 1;
+            // style ids are unique, so distinct styles never compare as equal
+            int id = this.style.id, oid = other.style.id;
+            return (id < oid) ? -1 : ((id == oid) ? 0 : 1);
+        }
+
+        @Override public boolean equals (Object other) {
+            if (other == this) return true;
+            if (other == null || other.getClass() != getClass()) return false;
+            Binding<?> ob = (Binding<?>)other;
+            return ob.style == style && eq(_defaultV, ob._defaultV) &&
+                eq(_disabledV, ob._disabledV) && eq(_selectedV, ob._selectedV) &&
+                eq(_disSelectedV, ob._disSelectedV);
+        }
+
+        @Override public int hashCode () {
+            int hash = style.id;
+            hash = 31*hash + hash(_defaultV);
+            hash = 31*hash + hash(_disabledV);
+            hash = 31*hash + hash(_selectedV);
+            return 31*hash + hash(_disSelectedV);
         }
 
         private V merge (V ours, V theirs) {
             return (theirs == null) ? ours : theirs;
         }
 
+        protected static boolean eq (Object a, Object b) {
+            return (a == b) || (a != null && a.equals(b));
+        }
+
+        protected static int hash (Object value) {
+            return (value == null) ? 0 : value.hashCode();
+        }
+
         protected V _defaultV, _disabledV, _selectedV, _disSelectedV;
     }
 
+    /** Yields the value of a primary binding, falling back to a secondary binding if the primary
+     * has no value for an element's current mode. */
+    static class ChainedBinding<V> extends Binding<V> {
+        public ChainedBinding (Binding<V> primary, Binding<V> fallback) {
+            super(primary.style);
+            _primary = primary;
+            _fallback = fallback;
+        }
+
+        @Override public V get (Element<?> elem) {
+            V value = _primary.get(elem);
+            return (value != null) ? value : _fallback.get(elem);
+        }
+
+        @Override public boolean equals (Object other) {
+            if (!super.equals(other)) return false;
+            ChainedBinding<?> ob = (ChainedBinding<?>)other;
+            return _primary.equals(ob._primary) && _fallback.equals(ob._fallback);
+        }
+
+        @Override public int hashCode () {
+            return 31*(31*super.hashCode() + _primary.hashCode()) + _fallback.hashCode();
+        }
+
+        protected final Binding<V> _primary, _fallback;
+    }
+
+    /** Caches the values resolved from the stylesheets that apply to the elements beneath a
+     * particular group, by element class, style and mode. */
+    static class SheetCache {
+        public <V> V get (Elements<?> group, Element<?> elem, Style<V> style) {
+            if (_generation != _sheetGeneration) {
+                _values.clear();
+                _generation = _sheetGeneration;
+            }
+
+            Map<Style<?>, Object[]> byStyle = _values.get(elem.getClass());
+            if (byStyle == null) {
+                byStyle = new HashMap<Style<?>, Object[]>();
+                _values.put(elem.getClass(), byStyle);
+            }
+            Object[] byMode = byStyle.get(style);
+            if (byMode == null) {
+                byMode = new Object[4];
+                byStyle.put(style, byMode);
+            }
+
+            // this mirrors the state that Binding.get uses to select a value
+            int mode = (elem.isEnabled() ? 0 : 1) | (elem.isSelected() ? 2 : 0);
+            Object value = byMode[mode];
+            if (value == null) {
+                value = resolveSheetStyle(group, elem, style);
+                byMode[mode] = (value == null) ? NONE : value;
+            }
+            @SuppressWarnings("unchecked") V result = (value == NONE) ? null : (V)value;
+            return result;
+        }
+
+        protected final Map<Class<?>, Map<Style<?>, Object[]>> _values =
+            new HashMap<Class<?>, Map<Style<?>, Object[]>>();
+        protected int _generation = _sheetGeneration;
+
+        // used to cache the fact that no stylesheet provides a value
+        protected static final Object NONE = new Object();
+    }
+
+    /** Identifies an array of bindings by its contents. */
+    protected static class BindingsKey {
+        public final Binding<?>[] bindings;
+
+        public BindingsKey (Binding<?>[] bindings) {
+            this.bindings = bindings;
+            _hash = Arrays.hashCode(bindings);
+        }
+
+        @Override public int hashCode () {
+            return _hash;
+        }
+
+        @Override public boolean equals (Object other) {
+            return (other instanceof BindingsKey) && ((BindingsKey)other)._hash == _hash &&
+                Arrays.equals(((BindingsKey)other).bindings, bindings);
+        }
+
+        protected final int _hash;
+    }
+
+    /** Identifies the merge of two (immutable) styles instances. */
+    protected static class MergeKey {
+        public final Styles a, b;
+
+        public MergeKey (Styles a, Styles b) {
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override public int hashCode () {
+            return 31*System.identityHashCode(a) + System.identityHashCode(b);
+        }
+
+        @Override public boolean equals (Object other) {
+            return (other instanceof MergeKey) && ((MergeKey)other).a == a &&
+                ((MergeKey)other).b == b;
+        }
+    }
+
+    /** A map which retains at most a fixed number of its most recently used entries. */
+    protected static class LruMap<K,V> extends LinkedHashMap<K,V> {
+        public LruMap (int capacity) {
+            super(16, 0.75f, true);
+            _capacity = capacity;
+        }
+
+        @Override protected boolean removeEldestEntry (Map.Entry<K,V> eldest) {
+            return size() > _capacity;
+        }
+
+        protected final int _capacity;
+    }
+
+    /** Our bindings, sorted by style id. */
     protected Binding<?>[] _bindings;
+    /** Our bindings indexed by style id (offset by {@link #_baseId}), with nulls for the styles
+     * that we do not bind, or null if our bound styles are too sparse to be so indexed. */
+    protected Binding<?>[] _byId;
+    protected int _baseId;
+
+    /** The largest ratio of id span to bindings for which we index our bindings by style id. */
+    protected static final int MAX_SPAN_PER_BINDING = 4;
 
     protected static final Styles _noneSingleton = new Styles(new Binding<?>[0]);
+
+    /** Interned styles, their bindings, and the results of recent merges. These are bounded, so
+     * that an app that churns through distinct styles does not accumulate them forever. */
+    protected static final Map<BindingsKey, Styles> _interned =
+        new LruMap<BindingsKey, Styles>(1024);
+    protected static final Map<Binding<?>, Binding<?>> _internedBindings =
+        new LruMap<Binding<?>, Binding<?>>(4096);
+    protected static final Map<MergeKey, Styles> _merges = new LruMap<MergeKey, Styles>(1024);
+
+    /** Incremented whenever cached stylesheet values may have become invalid. */
+    protected static int _sheetGeneration;
 }
@@ -59,16 +59,42 @@ public class Stylesheet
      * inherited, the style may be fetched from the configuration for a supertype of the supplied
      * element type. Returns null if no configuration can be found.
      */
-    <V> V get (Styles.Binding<V> key, Class<?> eclass, Element<?> elem) {
+    <V> V get (Style<V> style, Class<?> eclass, Element<?> elem) {
+        return flattened(eclass).<V>get(style, elem);
+    }
+
+    /**
+     * Performs the same lookup as {@link #get}, but by searching up the element's class hierarchy
+     * rather than via the flattened styles. Used to test and benchmark the flattened lookup.
+     */
+    <V> V getRecursive (Style<V> style, Class<?> eclass, Element<?> elem) {
         Styles styles = _styles.get(eclass);
-        V value = (styles == null) ? null : styles.<V>get(key, elem);
+        V value = (styles == null) ? null : styles.<V>get(style, elem);
         if (value != null) return value;
 
         // if the style is not inherited, or we're already checking for Element.class, then we've
         // done all the searching we can
-        if (!key.style.inherited || eclass == Element.class) return null;
+        if (!style.inherited || eclass == Element.class) return null;
+        return this.<V>getRecursive(style, superclass(eclass), elem);
+    }
+
+    /**
+     * Returns the styles that apply to the supplied element class: those configured for the class
+     * itself, backed up by the inherited styles configured for its superclasses. These are
+     * computed on demand and cached, as a stylesheet does not change after it is created.
+     */
+    protected Styles flattened (Class<?> eclass) {
+        Styles styles = _flattened.get(eclass);
+        if (styles == null) {
+            styles = _styles.get(eclass);
+            if (styles == null) styles = Styles.none();
+            if (eclass != Element.class) styles = styles.withInherited(flattened(superclass(eclass)));
+            _flattened.put(eclass, styles);
+        }
+        return styles;
+    }
 
-        // otherwise check our parent class
+    protected static Class<?> superclass (Class<?> eclass) {
         Class<?> parent = eclass.getSuperclass();
         if (parent == null) {
             // TEMP: avoid confusion while PlayN POM disables class metadata by default
@@ -76,7 +102,7 @@ public class Stylesheet
                 "Your PlayN application must not be compiled with -XdisableClassMetadata. " +
                 "It breaks TriplePlay stylesheets.");
         }
-        return this.<V>get(key, parent, elem);
+        return parent;
     }
 
     private Stylesheet (Map<Class<?>, Styles> styles) {
@@ -84,4 +110,5 @@ public class Stylesheet
     }
 
     protected final Map<Class<?>, Styles> _styles;
+    protected final Map<Class<?>, Styles> _flattened = new HashMap<Class<?>, Styles>();
 }
@@ -18,6 +18,7 @@ import pythagoras.f.IRectangle;
 import react.Slot;
 
 import tripleplay.util.Objects;
+import tripleplay.util.TextLayoutCache;
 
 /**
  * An abstract base class for widgets that contain text.
@@ -93,20 +94,43 @@ public abstract class TextWidget<T extends TextWidget<T>> extends Widget<T>
 
         // prepare our background
         Background bg = ldata.bg;
-        if (_bginst != null) _bginst.destroy();
-        if (_size.width > 0 && _size.height > 0) {
-            _bginst = bg.instantiate(_size);
-            _bginst.addTo(layer);
-        }
+        _bginst = bg.reinstantiate(_bginst, _size, layer);
         width -= bg.width();
         height -= bg.height();
 
         // prepare our label and icon
         renderLayout(ldata, bg.left, bg.top, width, height);
 
+        _rendered = ldata;
         clearLayoutData(); // we no longer need our layout data
     }
 
+    @Override protected void modeChanged () {
+        // a new mode usually means only new colors, but styles may also configure a different
+        // font, background, etc. for it, which would change our size
+        clearLayoutData();
+        if (_rendered == null || sizeStylesChanged(_rendered)) invalidate();
+        else invalidatePaint();
+    }
+
+    /**
+     * Returns true if any of the styles that determine this widget's size resolve differently
+     * than they did when the supplied layout was computed.
+     */
+    protected boolean sizeStylesChanged (LayoutData ldata) {
+        Background bg = resolveStyle(Style.BACKGROUND);
+        if (bg.width() != ldata.bg.width() || bg.height() != ldata.bg.height()) return true;
+        if (resolveStyle(Style.TEXT_WRAP) != ldata.wrap) return true;
+        if (ldata.iconPos != null && (resolveStyle(Style.ICON_POS) != ldata.iconPos ||
+                                      resolveStyle(Style.ICON_GAP) != ldata.iconGap)) return true;
+        if (ldata.text == null) return false;
+        // an effect's parameters (shadow offset, say) contribute to the size of our text, so we
+        // compare effects by content, not just kind
+        TextFormat oformat = ldata.text.format(), nformat = Style.createTextFormat(this);
+        return !TextLayoutCache.sameFont(oformat.font, nformat.font) ||
+            !TextLayoutCache.sameEffect(oformat.effect, nformat.effect);
+    }
+
     @Override protected void clearLayoutData () {
         super.clearLayoutData();
         _ldata = null;
@@ -165,7 +189,7 @@ public abstract class TextWidget<T extends TextWidget<T>> extends Widget<T>
             TextFormat format = Style.createTextFormat(this);
             if (hintX > 0 && ldata.wrap) format = format.withWrapWidth(hintX);
             // TODO: should we do something with a y-hint?
-            ldata.text = PlayN.graphics().layoutText(curtext, format);
+            ldata.text = TextLayoutCache.SHARED.layout(curtext, format);
         }
     }
 
@@ -247,6 +271,7 @@ public abstract class TextWidget<T extends TextWidget<T>> extends Widget<T>
                                     float twidth, float theight,
                                     float availWidth, float availHeight) {
         if (twidth > 0 && theight > 0) {
+            _tglyph.setAtlas(resolveStyle(Style.GLYPH_ATLAS));
             _tglyph.prepare(twidth, theight);
             _tglyph.canvas().drawText(ldata.text, 0, 0);
             _tglyph.layer().setTranslation(tx + ldata.halign.offset(twidth, availWidth),
@@ -266,6 +291,8 @@ public abstract class TextWidget<T extends TextWidget<T>> extends Widget<T>
 
     protected Background.Instance _bginst;
     protected LayoutData _ldata;
+    /** The layout data with which we were last rendered. */
+    protected LayoutData _rendered;
 
     protected final Glyph _tglyph = new Glyph();
 
@@ -23,7 +23,7 @@ public abstract class TogglableTextWidget<T extends TogglableTextWidget<T>>
      */
     public T setSelected (boolean value) {
         set(Flag.SELECTED, value);
-        invalidate();
+        modeChanged();
         return asT();
     }
 
@@ -31,7 +31,7 @@ public abstract class TogglableTextWidget<T extends TogglableTextWidget<T>>
     protected void onPress () {
         _anchorState = isSelected();
         set(Flag.SELECTED, !_anchorState);
-        invalidate();
+        modeChanged();
     }
 
     /** Called as the user drags the pointer around with the widget depressed. */
@@ -39,7 +39,7 @@ public abstract class TogglableTextWidget<T extends TogglableTextWidget<T>>
         boolean selected = inBounds ? !_anchorState : _anchorState;
         if (selected != isSelected()) {
             set(Flag.SELECTED, selected);
-            invalidate();
+            modeChanged();
         }
     }
 
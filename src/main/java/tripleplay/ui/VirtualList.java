@@ -0,0 +1,241 @@
+//
+// Triple Play - utilities for use in PlayN-based games
+// Copyright (c) 2011, Three Rings Design, Inc. - All rights reserved.
+// http://github.com/threerings/tripleplay/blob/master/LICENSE
+
+package tripleplay.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import playn.core.Layer;
+import playn.core.Pointer;
+
+import pythagoras.f.Dimension;
+import pythagoras.f.MathUtil;
+import pythagoras.f.Point;
+
+import react.Signal;
+import react.SignalView;
+import react.Slot;
+
+import tripleplay.anim.Flicker;
+
+/**
+ * A vertically scrolling list of fixed height rows, which materializes only the rows that are
+ * visible in its viewport (plus a few rows beyond either edge). Rows are created by a {@link
+ * Model} and rebound to new entries as they scroll out of view, so the number of rows, and the
+ * cost of laying them out, is proportional to the size of the viewport rather than the length of
+ * the list.
+ *
+ * <p>Scrolling is driven by a {@link Flicker}, which receives all pointer input on the list. Rows
+ * are therefore display-only; clicks on a row are reported via {@link #clicked}. As with the
+ * flicker, {@link #update} must be called on every frame tick.</p>
+ *
+ * <p><em>Note:</em> PlayN does not clip group layers, so rows that straddle the top or bottom of
+ * the viewport will overhang it. Rows that lie entirely outside the viewport are hidden.</p>
+ */
+public class VirtualList<W extends Element<?>> extends Elements<VirtualList<W>>
+{
+    /** Creates the rows displayed by a list and binds them to the list's entries. */
+    public interface Model<W> {
+        /** Returns the number of entries in the list. */
+        int size ();
+
+        /** Creates a new row. The row will be bound to an entry before it is displayed. */
+        W createRow ();
+
+        /** Configures the supplied row to display the entry at {@code index}. */
+        void bindRow (W row, int index);
+    }
+
+    /** The number of rows materialized beyond each edge of the viewport. */
+    public static final int BUFFER_ROWS = 2;
+
+    /**
+     * Creates a list which displays the entries of the supplied model in rows of the specified
+     * height.
+     */
+    public VirtualList (Model<W> model, float rowHeight) {
+        super(new RowLayout());
+        _model = model;
+        _rowHeight = rowHeight;
+
+        // we handle all pointer input on the list ourselves, via our flicker
+        layer.setHitTester(new Layer.HitTester() {
+            public Layer hitTest (Layer layer, Point p) {
+                return (isVisible() && contains(p.x, p.y)) ? layer : null;
+            }
+        });
+        layer.addListener(_flicker);
+        _flicker.clicked.connect(new Slot<Pointer.Event>() {
+            public void onEmit (Pointer.Event event) {
+                float y = event.localY() - _top - _flicker.position;
+                int index = MathUtil.ifloor(y / _rowHeight);
+                if (index >= 0 && index < _model.size()) _clicked.emit(index);
+            }
+        });
+    }
+
+    /** Emitted with the index of the entry whose row was clicked. */
+    public SignalView<Integer> clicked () {
+        return _clicked;
+    }
+
+    /**
+     * Configures the number of rows this list requests space for when computing its preferred
+     * size. Defaults to 10.
+     */
+    public VirtualList<W> setPreferredRows (int rows) {
+        _prefRows = rows;
+        invalidate();
+        return this;
+    }
+
+    /**
+     * Scrolls the list such that the entry at the specified index is at the top of the viewport,
+     * or as near to it as the length of the list allows.
+     */
+    public void scrollTo (int index) {
+        _flicker.position = -index * _rowHeight;
+        updateRange();
+        scrolled();
+    }
+
+    /**
+     * Notes that the entries of the model, or the number of them, have changed. All materialized
+     * rows are rebound when the list is next laid out.
+     */
+    public void modelChanged () {
+        for (int ii = 0, ll = _rows.size(); ii < ll; ii++) _indices[ii] = -1;
+        _first = _last = 0;
+        invalidate();
+    }
+
+    /**
+     * Applies any flick motion to the list and rebinds rows that have scrolled into view. This
+     * must be called every frame with {@link playn.core.Game#update}'s delta.
+     */
+    public void update (float delta) {
+        _flicker.update(delta);
+        if (_flicker.position != _offset) scrolled();
+    }
+
+    protected Dimension computeRowsSize (float hintX, float hintY) {
+        float height = _rowHeight * Math.min(_model.size(), _prefRows);
+        // materialize our initial rows (or rebind them, if our model changed) so that we have
+        // something to measure
+        if (_first == _last) {
+            updateRange();
+            bindRows(_viewHeight > 0 ? _viewHeight : height);
+        }
+        float width = 0;
+        for (int ii = 0, ll = _rows.size(); ii < ll; ii++) {
+            if (_indices[ii] >= 0) width = Math.max(
+                width, _rows.get(ii).preferredSize(hintX, _rowHeight).width());
+        }
+        return new Dimension(width, height);
+    }
+
+    protected void layoutRows (float left, float top, float width, float height) {
+        _left = left;
+        _top = top;
+        _width = width;
+        _viewHeight = height;
+        updateRange();
+        bindRows(height);
+        placeRows();
+    }
+
+    protected void scrolled () {
+        bindRows(_viewHeight);
+        placeRows();
+    }
+
+    protected void updateRange () {
+        _flicker.setRange(Math.min(0, _viewHeight - _model.size() * _rowHeight), 0);
+    }
+
+    /**
+     * Ensures that exactly the entries in or near a viewport of the specified height are bound to
+     * rows, rebinding rows whose entries have scrolled out of range and creating rows as needed.
+     */
+    protected void bindRows (float viewHeight) {
+        float scroll = -_flicker.position;
+        int first = Math.max(0, MathUtil.ifloor(scroll / _rowHeight) - BUFFER_ROWS);
+        int last = Math.max(first, Math.min(
+            _model.size(), MathUtil.iceil((scroll + viewHeight) / _rowHeight) + BUFFER_ROWS));
+
+        // release the rows whose entries are no longer in range
+        for (int ii = 0, ll = _rows.size(); ii < ll; ii++) {
+            int index = _indices[ii];
+            if (index >= 0 && (index < first || index >= last)) _indices[ii] = -1;
+        }
+
+        // bind the newly in range entries to released rows, creating more rows if needed
+        int spare = 0;
+        for (int index = first; index < last; index++) {
+            if (index >= _first && index < _last) continue; // still bound
+            while (spare < _rows.size() && _indices[spare] >= 0) spare++;
+            if (spare == _rows.size()) {
+                W row = _model.createRow();
+                _rows.add(row);
+                if (_indices.length < _rows.size()) {
+                    int[] indices = new int[_indices.length*2];
+                    System.arraycopy(_indices, 0, indices, 0, _indices.length);
+                    _indices = indices;
+                }
+                add(row);
+            }
+            _indices[spare] = index;
+            _model.bindRow(_rows.get(spare), index);
+        }
+        _first = first;
+        _last = last;
+    }
+
+    /**
+     * Positions the bound rows according to the current scroll position and hides the others.
+     */
+    protected void placeRows () {
+        _offset = _flicker.position;
+        for (int ii = 0, ll = _rows.size(); ii < ll; ii++) {
+            W row = _rows.get(ii);
+            int index = _indices[ii];
+            float y = index * _rowHeight + _offset;
+            row.layer.setVisible(row.isVisible() && index >= 0 &&
+                                 y + _rowHeight > 0 && y < _viewHeight);
+            if (index < 0) continue;
+            row.setLocation(_left, _top + y);
+            row.setSize(_width, _rowHeight);
+        }
+    }
+
+    /** Delegates layout to the list, which knows which of its children are bound to what. */
+    protected static class RowLayout extends Layout {
+        @Override public Dimension computeSize (Elements<?> elems, float hintX, float hintY) {
+            return ((VirtualList<?>)elems).computeRowsSize(hintX, hintY);
+        }
+
+        @Override public void layout (Elements<?> elems, float left, float top,
+                                      float width, float height) {
+            ((VirtualList<?>)elems).layoutRows(left, top, width, height);
+        }
+    }
+
+    protected final Model<W> _model;
+    protected final float _rowHeight;
+    protected final Flicker _flicker = new Flicker(0, 0, 0);
+    protected final Signal<Integer> _clicked = Signal.create();
+
+    /** Our materialized rows, and the index of the entry to which each is bound (or -1). */
+    protected final List<W> _rows = new ArrayList<W>();
+    protected int[] _indices = new int[16];
+    /** The range of entries currently bound to rows: {@code [_first, _last)}. */
+    protected int _first, _last;
+
+    protected int _prefRows = 10;
+    protected float _left, _top, _width, _viewHeight;
+    /** The scroll position at which our rows were last placed. */
+    protected float _offset;
+}
@@ -5,6 +5,7 @@
 
 package tripleplay.ui.bgs;
 
+import pythagoras.f.Dimension;
 import pythagoras.f.IDimension;
 
 import playn.core.ImmediateLayer;
@@ -24,11 +25,12 @@ public class BeveledBackground extends Background
         _brColor = brColor;
     }
 
-    @Override protected Instance instantiate (final IDimension size) {
+    @Override protected Instance instantiate (IDimension size) {
+        final Dimension lsize = new Dimension(size);
         return new LayerInstance(
             PlayN.graphics().createImmediateLayer(new ImmediateLayer.Renderer() {
             public void render (Surface surf) {
-                float width = size.width(), height = size.height();
+                float width = lsize.width, height = lsize.height;
                 float bot = height, right=width;
                 surf.setFillColor(_bgColor).fillRect(0, 0, width, height);
                 surf.setFillColor(_ulColor).
@@ -37,7 +39,12 @@ public class BeveledBackground extends Background
                     drawLine(right, 0, right, bot, 1).drawLine(1, bot-1, right-1, bot-1, 1).
                     drawLine(0, bot, right, bot, 1).drawLine(right-1, 1, right-1, bot-1, 1);
             }
-        }));
+        })) {
+            @Override public boolean resize (IDimension size) {
+                lsize.setSize(size);
+                return true;
+            }
+        };
     }
 
     protected final int _bgColor, _ulColor, _brColor;
@@ -8,6 +8,7 @@ package tripleplay.ui.bgs;
 import playn.core.ImmediateLayer;
 import playn.core.PlayN;
 import playn.core.Surface;
+import pythagoras.f.Dimension;
 import pythagoras.f.IDimension;
 import tripleplay.ui.Background;
 
@@ -23,10 +24,11 @@ public class BorderedBackground extends Background
     }
 
     @Override
-    protected Instance instantiate (final IDimension size) {
+    protected Instance instantiate (IDimension size) {
+        final Dimension lsize = new Dimension(size);
         return new LayerInstance(PlayN.graphics().createImmediateLayer(new ImmediateLayer.Renderer() {
             public void render (Surface surf) {
-                float width = size.width(), height = size.height();
+                float width = lsize.width, height = lsize.height;
                 float bot = height-1, right=width-1;
                 surf.setFillColor(_bgColor).fillRect(0, 0, width, height);
                 surf.setFillColor(_borderColor).
@@ -35,7 +37,12 @@ public class BorderedBackground extends Background
                     drawLine(right, bot, 0, bot, _thickness).
                     drawLine(0, bot, 0, 0, _thickness);
             }
-        }));
+        })) {
+            @Override public boolean resize (IDimension size) {
+                lsize.setSize(size);
+                return true;
+            }
+        };
     }
 
     protected final int _bgColor, _borderColor, _thickness;
@@ -23,9 +23,14 @@ public class ImageBackground extends Background
     }
 
     @Override protected Instance instantiate (IDimension size) {
-        ImageLayer layer = PlayN.graphics().createImageLayer(_image);
+        final ImageLayer layer = PlayN.graphics().createImageLayer(_image);
         layer.setSize(size.width(), size.height());
-        return new LayerInstance(layer);
+        return new LayerInstance(layer) {
+            @Override public boolean resize (IDimension size) {
+                layer.setSize(size.width(), size.height());
+                return true;
+            }
+        };
     }
 
     protected final Image _image;
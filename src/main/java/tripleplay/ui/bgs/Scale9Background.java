@@ -9,8 +9,10 @@ import java.util.NoSuchElementException;
 
 import pythagoras.f.IDimension;
 
+import playn.core.GroupLayer;
 import playn.core.Image;
 import playn.core.ImmediateLayer;
+import playn.core.Layer;
 import playn.core.PlayN;
 import playn.core.Surface;
 
@@ -22,37 +24,194 @@ import tripleplay.ui.Background;
  * are drawn without scaling to the destination, the top and bottom center pieces are copied with
  * horizontal scaling, the left and right center pieces are copied with vertical scaling, and the
  * center piece is copied with both horizontal and vertical scaling.
+ *
+ * <p>The source and destination rectangles of the parts are computed once per image and once per
+ * instance size respectively. Many instances can also be rendered by a single shared layer, see
+ * {@link Batch}.</p>
  */
 public class Scale9Background extends Background
 {
+    /**
+     * Renders many scale9 backgrounds using a single layer, rather than a layer apiece. The batch
+     * layer is added to a host group, beneath the host's children, and each background is drawn at
+     * the position of its element relative to that host. A batch is thus best hosted by the group
+     * that contains a list of framed rows, for example.
+     *
+     * <p>Batched backgrounds are drawn in no particular order, so they should not overlap one
+     * another, and only the translation (and visibility) of the layers between a background's
+     * element and the host are accounted for; scaling, rotation and alpha are not.</p>
+     */
+    public static class Batch {
+        /** Creates a batch whose layer is added to the supplied host. */
+        public Batch (GroupLayer host) {
+            _host = host;
+            _layer = PlayN.graphics().createImmediateLayer(new ImmediateLayer.Renderer() {
+                public void render (Surface surf) {
+                    Batch.this.render(surf);
+                }
+            });
+            _layer.setDepth(BACKGROUND_DEPTH);
+            host.add(_layer);
+        }
+
+        /** Returns the number of backgrounds currently rendered by this batch. */
+        public int size () {
+            return _count;
+        }
+
+        /** Removes this batch's layer from its host. */
+        public void destroy () {
+            _layer.destroy();
+        }
+
+        protected void add (BatchedInstance inst) {
+            if (_count == _insts.length) {
+                BatchedInstance[] insts = new BatchedInstance[_count*2];
+                System.arraycopy(_insts, 0, insts, 0, _count);
+                _insts = insts;
+            }
+            inst._index = _count;
+            _insts[_count++] = inst;
+        }
+
+        protected void remove (BatchedInstance inst) {
+            int index = inst._index;
+            if (index < 0) return;
+            BatchedInstance last = _insts[--_count];
+            _insts[index] = last;
+            last._index = index;
+            _insts[_count] = null;
+            inst._index = -1;
+        }
+
+        protected void render (Surface surf) {
+            for (int ii = 0; ii < _count; ii++) {
+                BatchedInstance inst = _insts[ii];
+                // determine the position of the instance's parent layer in our host's coordinates
+                float x = 0, y = 0;
+                Layer layer = inst._parent;
+                while (layer != null && layer != _host && layer.visible()) {
+                    x += layer.transform().tx();
+                    y += layer.transform().ty();
+                    layer = layer.parent();
+                }
+                if (layer == _host) inst._bg.draw(surf, x, y, inst._dest);
+            }
+        }
+
+        protected final GroupLayer _host;
+        protected final ImmediateLayer _layer;
+        protected BatchedInstance[] _insts = new BatchedInstance[16];
+        protected int _count;
+    }
+
     /** Creates a new background using the given image. The subdivision of the image into a 3x3
      * grid is automatic. */
     public Scale9Background (Image image) {
         _image = image;
         _sx = new Axis3(image.width());
         _sy = new Axis3(image.height());
+        _dx = new Axis3(0, _sx);
+        _dy = new Axis3(0, _sy);
+        _src = computeRects(_sx, _sy, new float[RECTS_SIZE]);
+    }
+
+    /**
+     * Configures this background to be rendered by the supplied batch, rather than by a layer per
+     * instance. Returns this background for chaining.
+     */
+    public Scale9Background batched (Batch batch) {
+        _batch = batch;
+        return this;
     }
 
     @Override
-    protected Instance instantiate (final IDimension size) {
+    protected Instance instantiate (IDimension size) {
+        final float[] dest = new float[RECTS_SIZE];
+        computeDest(size, dest);
+        if (_batch != null) return new BatchedInstance(_batch, this, dest);
         return new LayerInstance(PlayN.graphics().createImmediateLayer(new ImmediateLayer.Renderer() {
-            // The axes of our destination surface.
-            Axis3 dx = new Axis3(size.width(), _sx), dy = new Axis3(size.height(), _sy);
             public void render (Surface surf) {
-                // issue the 9 draw calls
-                for (int yy = 0; yy < 3; ++yy) {
-                    for (int xx = 0; xx < 3; ++xx) {
-                        drawPart(surf, xx, yy);
-                    }
-                }
+                draw(surf, 0, 0, dest);
             }
+        })) {
+            @Override public boolean resize (IDimension size) {
+                computeDest(size, dest);
+                return true;
+            }
+        };
+    }
+
+    @Override protected boolean reusable (Instance inst) {
+        // an instance must be recreated if we've since been (un- or re-)batched
+        Batch batch = (inst instanceof BatchedInstance) ? ((BatchedInstance)inst)._batch : null;
+        return super.reusable(inst) && batch == _batch;
+    }
+
+    /** Draws the parts of our image into the supplied destination rectangles, offset by the
+     * supplied amount. Parts with no area are skipped. */
+    protected void draw (Surface surf, float x, float y, float[] dest) {
+        float[] src = _src;
+        for (int ii = 0; ii < RECTS_SIZE; ii += 4) {
+            float dw = dest[ii+2], dh = dest[ii+3];
+            if (dw <= 0 || dh <= 0) continue;
+            surf.drawImage(_image, x + dest[ii], y + dest[ii+1], dw, dh,
+                           src[ii], src[ii+1], src[ii+2], src[ii+3]);
+        }
+    }
+
+    /** Computes our destination rectangles for the supplied size into {@code dest}. */
+    protected void computeDest (IDimension size, float[] dest) {
+        // our destination axes are only needed for the duration of this computation, so we reuse
+        // them for every instance rather than creating new ones on every resize
+        _dx.resize(size.width(), _sx);
+        _dy.resize(size.height(), _sy);
+        computeRects(_dx, _dy, dest);
+    }
 
-            protected void drawPart (Surface surf, int x, int y) {
-                surf.drawImage(_image,
-                    dx.coord(x), dy.coord(y), dx.size(x), dy.size(y),
-                    _sx.coord(x), _sy.coord(y), _sx.size(x), _sy.size(y));
+    /** Computes the (x, y, width, height) of each of the 9 parts defined by the supplied axes,
+     * storing them into {@code rects} in row major order. */
+    protected static float[] computeRects (Axis3 ax, Axis3 ay, float[] rects) {
+        for (int yy = 0, ii = 0; yy < 3; ++yy) {
+            for (int xx = 0; xx < 3; ++xx, ii += 4) {
+                rects[ii] = ax.coord(xx);
+                rects[ii+1] = ay.coord(yy);
+                rects[ii+2] = ax.size(xx);
+                rects[ii+3] = ay.size(yy);
             }
-        }));
+        }
+        return rects;
+    }
+
+    /** An instance rendered by a {@link Batch}. */
+    protected static class BatchedInstance extends Instance {
+        public BatchedInstance (Batch batch, Scale9Background bg, float[] dest) {
+            _batch = batch;
+            _bg = bg;
+            _dest = dest;
+        }
+
+        @Override public void addTo (GroupLayer parent) {
+            _parent = parent;
+            _batch.add(this);
+        }
+
+        @Override public void destroy () {
+            _batch.remove(this);
+            _parent = null;
+        }
+
+        @Override public boolean resize (IDimension size) {
+            _bg.computeDest(size, _dest);
+            return true;
+        }
+
+        /** The batch we joined, which our background may since have left. */
+        protected final Batch _batch;
+        protected final Scale9Background _bg;
+        protected final float[] _dest;
+        protected GroupLayer _parent;
+        protected int _index = -1;
     }
 
     /** A horizontal or vertical axis, broken up into 3 chunks. */
@@ -69,7 +228,16 @@ public class Scale9Background extends Background
         /** Creates a new axis with the given total length and 0th and 2nd lengths copied from a
          * source axis. */
         public Axis3 (float length, Axis3 src) {
-            lengths = new float[] {src.size(0), length - src.size(0) - src.size(2), src.size(2)};
+            lengths = new float[3];
+            resize(length, src);
+        }
+
+        /** Updates this axis to the given total length, with 0th and 2nd lengths copied from a
+         * source axis. */
+        public void resize (float length, Axis3 src) {
+            lengths[0] = src.size(0);
+            lengths[1] = length - src.size(0) - src.size(2);
+            lengths[2] = src.size(2);
         }
 
         /** Returns the coordinate of the given chunk, 0 - 2. */
@@ -92,4 +260,15 @@ public class Scale9Background extends Background
 
     /** The axes of our source image. */
     protected final Axis3 _sx, _sy;
+
+    /** Scratch axes used to compute the destination rectangles of our instances. */
+    protected final Axis3 _dx, _dy;
+
+    /** The rectangles of the 9 parts of our source image. See {@link #computeRects}. */
+    protected final float[] _src;
+
+    /** The batch that renders our instances, or null. */
+    protected Batch _batch;
+
+    protected static final int RECTS_SIZE = 9*4;
 }
@@ -5,6 +5,7 @@
 
 package tripleplay.ui.bgs;
 
+import pythagoras.f.Dimension;
 import pythagoras.f.IDimension;
 
 import tripleplay.ui.Background;
@@ -19,7 +20,13 @@ public class SolidBackground extends Background
     }
 
     @Override protected Instance instantiate (IDimension size) {
-        return new LayerInstance(createSolidLayer(_color, size.width(), size.height()));
+        final Dimension lsize = new Dimension(size);
+        return new LayerInstance(createSolidLayer(_color, lsize)) {
+            @Override public boolean resize (IDimension size) {
+                lsize.setSize(size);
+                return true;
+            }
+        };
     }
 
     protected final int _color;
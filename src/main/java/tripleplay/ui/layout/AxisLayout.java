@@ -70,21 +70,21 @@ public abstract class AxisLayout extends Layout
     public static class Vertical extends AxisLayout {
         @Override public Dimension computeSize (Elements<?> elems, float hintX, float hintY) {
             Metrics m = computeMetrics(elems, hintX, hintY, true);
-            return new Dimension(m.maxWidth, m.prefHeight + m.gaps(_gap));
+            return retain(elems, m, m.maxWidth, m.prefHeight + m.gaps(_gap));
         }
 
         @Override public void layout (Elements<?> elems,
                                       float left, float top, float width, float height) {
             Style.HAlign halign = resolveStyle(elems, Style.HALIGN);
             Style.VAlign valign = resolveStyle(elems, Style.VALIGN);
-            Metrics m = computeMetrics(elems, width, height, true);
+            Metrics m = metrics(elems, width, height, true);
             float stretchHeight = Math.max(0, height - m.gaps(_gap) - m.fixHeight);
             float y = top + ((m.stretchers > 0) ? 0 :
                              valign.offset(m.fixHeight + m.gaps(_gap), height));
             for (Element<?> elem : elems) {
                 if (!elem.isVisible()) continue;
-                IDimension psize = preferredSize(elem, width, height); // will be cached
                 Constraint c = constraint(elem);
+                IDimension psize = preferredSize(elem, c, m, true); // cached
                 float ewidth = _offPolicy.computeSize(psize.width(), m.maxWidth, width);
                 float eheight = c.computeSize(psize.height(), m.totalWeight, stretchHeight);
                 setBounds(elem, left + halign.offset(ewidth, width), y, ewidth, eheight);
@@ -97,21 +97,21 @@ public abstract class AxisLayout extends Layout
     public static class Horizontal extends AxisLayout {
         @Override public Dimension computeSize (Elements<?> elems, float hintX, float hintY) {
             Metrics m = computeMetrics(elems, hintX, hintY, false);
-            return new Dimension(m.prefWidth + m.gaps(_gap), m.maxHeight);
+            return retain(elems, m, m.prefWidth + m.gaps(_gap), m.maxHeight);
         }
 
         @Override public void layout (Elements<?> elems,
                                       float left, float top, float width, float height) {
             Style.HAlign halign = resolveStyle(elems, Style.HALIGN);
             Style.VAlign valign = resolveStyle(elems, Style.VALIGN);
-            Metrics m = computeMetrics(elems, width, height, false);
+            Metrics m = metrics(elems, width, height, false);
             float stretchWidth = Math.max(0, width - m.gaps(_gap) - m.fixWidth);
             float x = left + ((m.stretchers > 0) ? 0 :
                               halign.offset(m.fixWidth + m.gaps(_gap), width));
             for (Element<?> elem : elems) {
                 if (!elem.isVisible()) continue;
-                IDimension psize = preferredSize(elem, width, height); // will be cached
                 Constraint c = constraint(elem);
+                IDimension psize = preferredSize(elem, c, m, false); // cached
                 float ewidth = c.computeSize(psize.width(), m.totalWeight, stretchWidth);
                 float eheight = _offPolicy.computeSize(psize.height(), m.maxHeight, height);
                 setBounds(elem, x, top + valign.offset(eheight, height), ewidth, eheight);
@@ -217,6 +217,8 @@ public abstract class AxisLayout extends Layout
     protected Metrics computeMetrics (Elements<?> elems, float hintX, float hintY,
                                       boolean vert) {
         Metrics m = new Metrics();
+        m.hintX = hintX;
+        m.hintY = hintY;
         for (Element<?> elem : elems) {
             if (!elem.isVisible()) continue;
             m.count++;
@@ -245,11 +247,7 @@ public abstract class AxisLayout extends Layout
             Constraint c = constraint(elem);
             if (!c.stretch) continue;
 
-            // the first argument to computeSize is not used for stretched elements
-            float availX = hintX - m.gaps(_gap), availY = hintY - m.gaps(_gap);
-            float ehintX = vert ? availX : c.computeSize(0, m.totalWeight, availX);
-            float ehintY = vert ? c.computeSize(0, m.totalWeight, availY) : availY;
-            IDimension psize = preferredSize(elem, ehintX, ehintY);
+            IDimension psize = preferredSize(elem, c, m, vert);
             float pwidth = psize.width(), pheight = psize.height();
             m.unitWidth = Math.max(m.unitWidth, pwidth / c.weight);
             m.unitHeight = Math.max(m.unitHeight, pheight / c.weight);
@@ -262,6 +260,34 @@ public abstract class AxisLayout extends Layout
         return m;
     }
 
+    /**
+     * Returns the metrics retained when the supplied elements were measured, if they were measured
+     * at the specified size, otherwise computes them anew.
+     */
+    protected Metrics metrics (Elements<?> elems, float width, float height, boolean vert) {
+        Metrics m = (Metrics)retainedMetrics(elems, width, height);
+        return (m != null) ? m : computeMetrics(elems, width, height, vert);
+    }
+
+    protected Dimension retain (Elements<?> elems, Metrics m, float width, float height) {
+        retainMetrics(elems, m, width, height);
+        return new Dimension(width, height);
+    }
+
+    /**
+     * Returns the preferred size of the supplied element, with the hints used to measure it in
+     * {@link #computeMetrics}: stretched elements are given more accurate hints than the others.
+     * Layout passes must measure elements with the same hints, so as to reuse the cached sizes.
+     */
+    protected IDimension preferredSize (Element<?> elem, Constraint c, Metrics m, boolean vert) {
+        if (!c.stretch) return preferredSize(elem, m.hintX, m.hintY);
+        // the first argument to computeSize is not used for stretched elements
+        float availX = m.hintX - m.gaps(_gap), availY = m.hintY - m.gaps(_gap);
+        float ehintX = vert ? availX : c.computeSize(0, m.totalWeight, availX);
+        float ehintY = vert ? c.computeSize(0, m.totalWeight, availY) : availY;
+        return preferredSize(elem, ehintX, ehintY);
+    }
+
     protected Constraint constraint (Element<?> elem) {
         Layout.Constraint c = elem.constraint();
         return (c instanceof Constraint) ? (Constraint)c :
@@ -269,6 +295,9 @@ public abstract class AxisLayout extends Layout
     }
 
     protected static class Metrics {
+        /** The hints with which the elements were measured. */
+        public float hintX, hintY;
+
         public int count;
 
         public float prefWidth;
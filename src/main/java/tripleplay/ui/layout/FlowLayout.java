@@ -1,8 +1,5 @@
 package tripleplay.ui.layout;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import pythagoras.f.Dimension;
 import pythagoras.f.IDimension;
 import tripleplay.ui.Element;
@@ -49,61 +46,83 @@ public class FlowLayout extends Layout
 
     @Override public Dimension computeSize (Elements<?> elems, float hintX, float hintY) {
         Metrics m = computeMetrics(elems, hintX, hintY);
-        return m.size;
+        retainMetrics(elems, m, m.size.width, m.size.height);
+        return new Dimension(m.size);
     }
 
     @Override public void layout (Elements<?> elems,
                                   float left, float top, float width, float height) {
         Style.HAlign halign = resolveStyle(elems, Style.HALIGN);
-        Metrics m = computeMetrics(elems, width, height);
+        Metrics m = (Metrics)retainedMetrics(elems, width, height);
+        if (m == null) m = computeMetrics(elems, width, height);
         float y = top + resolveStyle(elems, Style.VALIGN).offset(m.size.height, height);
-        for (int elemIdx = 0, row = 0, size = m.rowBreaks.size(); row < size; ++row) {
-            Dimension rowSize = m.rows.get(row);
-            float x = left + halign.offset(rowSize.width, width);
-            for (; elemIdx < m.rowBreaks.get(row).intValue(); ++elemIdx) {
+        for (int elemIdx = 0, row = 0; row < m.rowCount; ++row) {
+            float rowHeight = m.rowHeights[row];
+            float x = left + halign.offset(m.rowWidths[row], width);
+            for (; elemIdx < m.rowBreaks[row]; ++elemIdx) {
                 Element<?> elem = elems.childAt(elemIdx);
-                IDimension esize = preferredSize(elem, width, height);
-                setBounds(elem, x, y + _valign.offset(esize.height(), rowSize.height()),
+                if (!elem.isVisible()) continue;
+                IDimension esize = preferredSize(elem, m.hintX, m.hintY);
+                setBounds(elem, x, y + _valign.offset(esize.height(), rowHeight),
                     esize.width(), esize.height());
                 x += esize.width() + _hgap;
             }
-            y += _vgap + rowSize.height;
+            y += _vgap + rowHeight;
         }
     }
 
     protected Metrics computeMetrics (Elements<?> elems, float width, float height) {
-        Metrics m = new Metrics();
+        int count = elems.childCount();
+        Metrics m = new Metrics(count+1);
+        m.hintX = width;
+        m.hintY = height;
 
         // fill in components horizontally, breaking rows as needed
-        Dimension rowSize = new Dimension();
-        for (int ii = 0, ll = elems.childCount(); ii < ll; ++ii) {
+        float rowWidth = 0, rowHeight = 0;
+        for (int ii = 0; ii < count; ++ii) {
             Element<?> elem = elems.childAt(ii);
             if (!elem.isVisible()) continue;
             IDimension esize = preferredSize(elem, width, height);
-            if (rowSize.width > 0 && width > 0 && rowSize.width + _hgap + esize.width() > width) {
-                m.addBreak(ii, rowSize);
-                rowSize = new Dimension(esize);
+            if (rowWidth > 0 && width > 0 && rowWidth + _hgap + esize.width() > width) {
+                m.addBreak(ii, rowWidth, rowHeight);
+                rowWidth = esize.width();
+                rowHeight = esize.height();
             } else {
-                rowSize.width += (rowSize.width > 0 ? _hgap : 0) + esize.width();
-                rowSize.height = Math.max(esize.height(), rowSize.height);
+                rowWidth += (rowWidth > 0 ? _hgap : 0) + esize.width();
+                rowHeight = Math.max(esize.height(), rowHeight);
             }
         }
-        m.addBreak(elems.childCount(), rowSize);
+        m.addBreak(count, rowWidth, rowHeight);
         return m;
     }
 
     public class Metrics
     {
+        /** The hints with which the elements were measured. */
+        public float hintX, hintY;
+        /** The size of all rows, including the gaps between them. */
         public Dimension size = new Dimension();
-        public List<Dimension> rows = new ArrayList<Dimension>();
-        public List<Integer> rowBreaks = new ArrayList<Integer>();
+        /** The number of rows. */
+        public int rowCount;
+        /** The width and height of each row. */
+        public final float[] rowWidths, rowHeights;
+        /** The index of the element following the last element of each row. */
+        public final int[] rowBreaks;
+
+        public Metrics (int maxRows) {
+            rowWidths = new float[maxRows];
+            rowHeights = new float[maxRows];
+            rowBreaks = new int[maxRows];
+        }
 
-        protected void addBreak (int idx, Dimension lastRowSize) {
-            if (lastRowSize.height == 0 && lastRowSize.width == 0) return;
-            rowBreaks.add(idx);
-            rows.add(lastRowSize);
-            size.height += (size.height > 0 ? _vgap : 0) + lastRowSize.height;
-            size.width = Math.max(size.width, lastRowSize.width);
+        protected void addBreak (int idx, float rowWidth, float rowHeight) {
+            if (rowHeight == 0 && rowWidth == 0) return;
+            rowBreaks[rowCount] = idx;
+            rowWidths[rowCount] = rowWidth;
+            rowHeights[rowCount] = rowHeight;
+            rowCount++;
+            size.height += (size.height > 0 ? _vgap : 0) + rowHeight;
+            size.width = Math.max(size.width, rowWidth);
         }
     }
 
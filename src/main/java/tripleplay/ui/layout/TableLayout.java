@@ -110,12 +110,15 @@ public class TableLayout extends Layout
 
     @Override public Dimension computeSize (Elements<?> elems, float hintX, float hintY) {
         Metrics m = computeMetrics(elems, hintX, hintY, true);
-        return new Dimension(m.totalWidth(_colgap), m.totalHeight(_rowgap));
+        float width = m.totalWidth(_colgap), height = m.totalHeight(_rowgap);
+        retainMetrics(elems, m, width, height);
+        return new Dimension(width, height);
     }
 
     @Override public void layout (Elements<?> elems,
                                   float left, float top, float width, float height) {
-        Metrics m = computeMetrics(elems, width, height, false);
+        Metrics m = (Metrics)retainedMetrics(elems, width, height);
+        if (m == null) m = computeMetrics(elems, width, height, false);
         int columns = m.columns(), row = 0, col = 0;
 
         float naturalWidth = m.totalWidth(_colgap);
@@ -139,7 +142,7 @@ public class TableLayout extends Layout
             float colWidth = Math.max(0, m.columnWidths[col] + (ccfg._fixed ? 0 : freeExtra));
             float rowHeight = m.rowHeights[row];
             if (colWidth > 0 && elem.isVisible()) {
-                IDimension psize = preferredSize(elem, 0, 0); // will be cached, hints ignored
+                IDimension psize = preferredSize(elem, m.hintX, m.hintY); // cached
                 float elemWidth = ccfg._stretch ? colWidth : Math.min(psize.width(), colWidth);
                 float elemHeight = Math.min(psize.height(), rowHeight);
                 setBounds(elem, x + ccfg._halign.offset(elemWidth, colWidth),
@@ -162,6 +165,8 @@ public class TableLayout extends Layout
         if (elems.childCount() % columns != 0) rows++;
 
         Metrics metrics = new Metrics();
+        metrics.hintX = hintX;
+        metrics.hintY = hintY;
         metrics.columnWidths = new float[columns];
         metrics.rowHeights = new float[rows];
 
@@ -190,6 +195,8 @@ public class TableLayout extends Layout
     }
 
     protected static class Metrics {
+        /** The hints with which the elements were measured. */
+        public float hintX, hintY;
         public float[] columnWidths;
         public float[] rowHeights;
 
@@ -5,6 +5,9 @@
 
 package tripleplay.util;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import playn.core.Canvas;
 import playn.core.CanvasImage;
 import playn.core.GroupLayer;
@@ -14,26 +17,138 @@ import pythagoras.f.FloatMath;
 
 /**
  * Handles the maintenance of a canvas image and layer for displaying a chunk of pre-rendered
- * graphics.
+ * graphics. The graphics are rendered into a dedicated canvas image, or into a region of a shared
+ * page if the glyph has been configured with a {@link GlyphAtlas}.
  */
 public class Glyph
 {
+    /**
+     * Controls how glyph images are sized and recycled. Image dimensions are rounded up to a
+     * bucket size (a power of two, by default) so that images can be reused across prepares of
+     * similar sizes, and by other glyphs via a shared pool of released images.
+     */
+    public static class Policy {
+        /** Whether to round image dimensions up to a power of two. */
+        public final boolean powerOfTwo;
+
+        /** The number of consecutive prepares that would fit in a smaller image after which a
+         * glyph will shrink its image. Zero disables shrinking. */
+        public final int shrinkAfter;
+
+        /** The maximum number of bytes of released images retained for reuse. */
+        public final int maxPooledBytes;
+
+        public Policy (boolean powerOfTwo, int shrinkAfter, int maxPooledBytes) {
+            this.powerOfTwo = powerOfTwo;
+            this.shrinkAfter = shrinkAfter;
+            this.maxPooledBytes = maxPooledBytes;
+        }
+
+        /** Returns the image dimension to be used to contain the specified size. */
+        public int bucket (int size) {
+            if (!powerOfTwo) return size;
+            if (size <= MIN_BUCKET) return MIN_BUCKET;
+            int bucket = Integer.highestOneBit(size);
+            return (bucket == size) ? size : bucket << 1;
+        }
+    }
+
+    /** The policy used if no other is configured: power of two buckets, shrink after eight
+     * smaller prepares and pool up to 1MB of released images. */
+    public static final Policy DEFAULT_POLICY = new Policy(true, 8, 1024*1024);
+
+    /** Configures the policy used by all glyphs. Existing images are resized (or not) according
+     * to the new policy the next time their glyph is prepared. Releases any pooled images that
+     * exceed the new policy's pool size. */
+    public static void setPolicy (Policy policy) {
+        _policy = policy;
+        trimPool(policy.maxPooledBytes);
+    }
+
+    /** Returns the policy used by all glyphs. */
+    public static Policy policy () {
+        return _policy;
+    }
+
+    /** Returns the total number of bytes of canvas memory held by glyphs, both in use and in the
+     * pool of released images. This does not include {@link GlyphAtlas} pages. */
+    public static long heldBytes () {
+        return _liveBytes + _pooledBytes;
+    }
+
+    /** Returns the number of bytes of canvas memory held by glyphs that are in use. */
+    public static long liveBytes () {
+        return _liveBytes;
+    }
+
+    /** Returns the number of bytes of canvas memory held in the pool of released images. */
+    public static long pooledBytes () {
+        return _pooledBytes;
+    }
+
+    /** Discards all pooled images, for example in response to a low memory warning. */
+    public static void clearPool () {
+        trimPool(0);
+    }
+
     public Glyph (GroupLayer parent) {
         _parent = parent;
     }
 
+    /**
+     * Configures the atlas in which this glyph renders its image, or null if it should use its own
+     * dedicated canvas image. Changing the atlas destroys the glyph's current image, so it must be
+     * {@link #prepare}d again before use.
+     */
+    public void setAtlas (GlyphAtlas atlas) {
+        if (atlas == _atlas) return;
+        destroy();
+        _atlas = atlas;
+    }
+
     /** Ensures that the canvas image is at least the specified dimensions and cleared to all
      * transparent pixels. Also creates and adds the image layer to the containing widget if
      * needed. */
     public void prepare (float width, float height) {
-        // recreate our canvas if we need more room than we have (TODO: should we ever shrink it?)
         int cwidth = FloatMath.iceil(width), cheight = FloatMath.iceil(height);
-        if (_image == null || _image.width() < cwidth || _image.height() < cheight) {
-            _image = PlayN.graphics().createImage(cwidth, cheight);
+        if (_atlas != null) {
+            // obtain a new region if our current region is too small
+            if (_region == null || !_region.fits(cwidth, cheight)) {
+                if (_region != null) _atlas.release(_region);
+                _region = _atlas.allocate(cwidth, cheight);
+                if (_region != null) {
+                    releaseImage();
+                    if (_layer != null) _layer.setImage(_region.image);
+                }
+            }
+            if (_region != null) {
+                _canvas = _region.prepare();
+                if (_layer == null) {
+                    _parent.add(_layer = PlayN.graphics().createImageLayer(_region.image));
+                }
+                return;
+            }
+            // if we're too big for the atlas, fall through and use a dedicated image
+        }
+
+        // obtain a new image if we need more room than we have, or if we've needed substantially
+        // less room than we have for a while
+        Policy policy = _policy;
+        int bwidth = policy.bucket(cwidth), bheight = policy.bucket(cheight);
+        boolean replace = (_image == null || _image.width() < cwidth || _image.height() < cheight);
+        if (!replace && (bwidth < _image.width() || bheight < _image.height())) {
+            replace = (policy.shrinkAfter > 0 && ++_smallerPrepares >= policy.shrinkAfter);
+        } else {
+            _smallerPrepares = 0;
+        }
+        if (replace) {
+            releaseImage();
+            _image = obtainImage(bwidth, bheight);
             if (_layer != null) _layer.setImage(_image);
         } else {
             _image.canvas().clear();
         }
+        _canvas = _image.canvas();
         if (_layer == null) _parent.add(_layer = PlayN.graphics().createImageLayer(_image));
     }
 
@@ -44,19 +159,74 @@ public class Glyph
 
     /** Returns the canvas into which drawing may be done. Valid after {@link #prepare}. */
     public Canvas canvas () {
-        return _image.canvas();
+        return _canvas;
     }
 
-    /** Destroys the layer and image, removing them from the containing widget. */
+    /** Destroys the layer and image, removing them from the containing widget. The image is
+     * returned to a shared pool for reuse by other glyphs, subject to the {@link Policy}. */
     public void destroy () {
         if (_layer != null) {
             _layer.destroy();
             _layer = null;
         }
+        if (_region != null) {
+            _atlas.release(_region);
+            _region = null;
+        }
+        releaseImage();
+        _canvas = null;
+    }
+
+    protected void releaseImage () {
+        if (_image == null) return;
+        int bytes = bytes(_image);
+        _liveBytes -= bytes;
+        if (_pooledBytes + bytes <= _policy.maxPooledBytes) {
+            _pool.add(_image);
+            _pooledBytes += bytes;
+        }
         _image = null;
+        _smallerPrepares = 0;
+    }
+
+    protected static CanvasImage obtainImage (int width, int height) {
+        CanvasImage image = null;
+        for (int ii = _pool.size()-1; ii >= 0; ii--) {
+            CanvasImage pimage = _pool.get(ii);
+            if (pimage.width() == width && pimage.height() == height) {
+                image = _pool.remove(ii);
+                _pooledBytes -= bytes(image);
+                image.canvas().clear();
+                break;
+            }
+        }
+        if (image == null) image = PlayN.graphics().createImage(width, height);
+        _liveBytes += bytes(image);
+        return image;
+    }
+
+    protected static void trimPool (int maxBytes) {
+        // discard the oldest images first
+        int drop = 0;
+        while (_pooledBytes > maxBytes) _pooledBytes -= bytes(_pool.get(drop++));
+        if (drop > 0) _pool.subList(0, drop).clear();
+    }
+
+    protected static int bytes (CanvasImage image) {
+        return 4 * (int)image.width() * (int)image.height();
     }
 
     protected final GroupLayer _parent;
+    protected GlyphAtlas _atlas;
+    protected GlyphAtlas.Region _region;
     protected CanvasImage _image;
+    protected Canvas _canvas;
     protected ImageLayer _layer;
+    protected int _smallerPrepares;
+
+    protected static Policy _policy = DEFAULT_POLICY;
+    protected static final List<CanvasImage> _pool = new ArrayList<CanvasImage>();
+    protected static long _liveBytes, _pooledBytes;
+
+    protected static final int MIN_BUCKET = 16;
 }
@@ -0,0 +1,237 @@
+//
+// Triple Play - utilities for use in PlayN-based games
+// Copyright (c) 2011, Three Rings Design, Inc. - All rights reserved.
+// http://github.com/threerings/tripleplay/blob/master/LICENSE
+
+package tripleplay.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import playn.core.Canvas;
+import playn.core.CanvasImage;
+import playn.core.Image;
+import playn.core.Path;
+import playn.core.PlayN;
+
+/**
+ * Packs many small {@link Glyph} images into a few large shared canvas images (pages), so that
+ * many glyphs can be displayed using a handful of textures rather than one texture apiece. Regions
+ * are allocated from a page using simple shelf packing, and are reused when their glyphs are
+ * destroyed. A page whose regions have all been released is cleared and reused from scratch.
+ *
+ * <p>Note that drawing into any region of a page will cause the entire page to be reuploaded to
+ * the GPU, so an atlas is best suited to glyphs that change infrequently (labels, scoreboards)
+ * rather than glyphs that are redrawn every frame.</p>
+ */
+public class GlyphAtlas
+{
+    /** A region of a page, allocated to a single glyph. */
+    public static class Region {
+        /** The page image that contains this region. */
+        public final CanvasImage page;
+
+        /** The bounds of this region in its page. */
+        public final int x, y, width, height;
+
+        /** The image that displays (just) this region of the page. */
+        public final Image image;
+
+        /** Returns true if this region can contain an image of the specified size. */
+        public boolean fits (int width, int height) {
+            return width <= this.width && height <= this.height;
+        }
+
+        /**
+         * Clears this region to transparent pixels and returns a canvas configured such that
+         * drawing at (0, 0) draws at the origin of this region and drawing is clipped to its
+         * bounds. The canvas remains configured thusly until another region of this page is
+         * prepared.
+         */
+        public Canvas prepare () {
+            Canvas canvas = page.canvas();
+            Page owner = _owner;
+            if (owner.prepared) canvas.restore();
+
+            canvas.save();
+            canvas.setCompositeOperation(Canvas.Composite.SRC);
+            canvas.setFillColor(0);
+            canvas.fillRect(x, y, width, height);
+            canvas.restore();
+
+            canvas.save();
+            Path clip = canvas.createPath();
+            clip.moveTo(x, y);
+            clip.lineTo(x + width, y);
+            clip.lineTo(x + width, y + height);
+            clip.lineTo(x, y + height);
+            clip.close();
+            canvas.clip(clip);
+            canvas.translate(x, y);
+            owner.prepared = true;
+            return canvas;
+        }
+
+        protected Region (Page owner, int x, int y, int width, int height) {
+            this.page = owner.image;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.image = page.subImage(x, y, width, height);
+            _owner = owner;
+        }
+
+        protected final Page _owner;
+        protected boolean _live;
+    }
+
+    /**
+     * Creates an atlas with pages of the specified size. Glyphs larger than a page cannot be
+     * packed and will be rendered into their own canvas image.
+     */
+    public GlyphAtlas (int pageWidth, int pageHeight) {
+        _pageWidth = pageWidth;
+        _pageHeight = pageHeight;
+    }
+
+    /**
+     * Creates an atlas with 512x512 pages.
+     */
+    public GlyphAtlas () {
+        this(DEFAULT_PAGE_SIZE, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Allocates a region of at least the specified size.
+     * @return the region, or null if the requested size exceeds our page size.
+     */
+    public Region allocate (int width, int height) {
+        // leave a pixel of padding to the right and below of each region, so that filtering does
+        // not bleed neighboring regions into one another
+        int pwidth = width + PADDING, pheight = height + PADDING;
+        if (pwidth > _pageWidth || pheight > _pageHeight) return null;
+
+        // first try to reuse a previously released region
+        Region best = null;
+        for (int ii = 0, ll = _pages.size(); ii < ll; ii++) {
+            Page page = _pages.get(ii);
+            for (int rr = 0, rl = page.free.size(); rr < rl; rr++) {
+                Region region = page.free.get(rr);
+                if (region.fits(width, height) &&
+                    (best == null || region.width * region.height < best.width * best.height)) {
+                    best = region;
+                }
+            }
+        }
+        if (best != null) {
+            best._owner.free.remove(best);
+            return claim(best);
+        }
+
+        // otherwise pack a new region into an existing page, or failing that, a new page
+        for (int ii = 0, ll = _pages.size(); ii < ll; ii++) {
+            Region region = _pages.get(ii).pack(width, height, pwidth, pheight);
+            if (region != null) return claim(region);
+        }
+        Page page = new Page(PlayN.graphics().createImage(_pageWidth, _pageHeight),
+                             _pageWidth, _pageHeight);
+        _pages.add(page);
+        return claim(page.pack(width, height, pwidth, pheight));
+    }
+
+    /**
+     * Releases a region previously obtained from {@link #allocate}. The region will be reused for
+     * a subsequent allocation, or if it was the last region in use on its page, the entire page
+     * will be cleared and reused.
+     */
+    public void release (Region region) {
+        if (!region._live) return;
+        region._live = false;
+        Page page = region._owner;
+        if (--page.live == 0) page.reset();
+        else page.free.add(region);
+    }
+
+    /** Returns the number of pages currently allocated by this atlas. */
+    public int pageCount () {
+        return _pages.size();
+    }
+
+    /** Returns the number of regions currently in use. */
+    public int regionCount () {
+        int count = 0;
+        for (Page page : _pages) count += page.live;
+        return count;
+    }
+
+    protected Region claim (Region region) {
+        region._live = true;
+        region._owner.live++;
+        return region;
+    }
+
+    protected static class Page {
+        public final CanvasImage image;
+        public final List<Region> free = new ArrayList<Region>();
+        public int live;
+        public boolean prepared;
+
+        public Page (CanvasImage image, int width, int height) {
+            this.image = image;
+            _width = width;
+            _height = height;
+        }
+
+        public Region pack (int width, int height, int pwidth, int pheight) {
+            // use the first shelf that is tall enough (but not excessively so) and has room
+            for (int ii = 0, ll = _shelves.size(); ii < ll; ii++) {
+                Shelf shelf = _shelves.get(ii);
+                if (shelf.height >= pheight && shelf.height <= pheight * 3 / 2 &&
+                    shelf.x + pwidth <= _width) {
+                    Region region = new Region(this, shelf.x, shelf.y, width, height);
+                    shelf.x += pwidth;
+                    return region;
+                }
+            }
+            // otherwise start a new shelf, if there's room
+            if (_nextShelfY + pheight > _height) return null;
+            Shelf shelf = new Shelf(_nextShelfY, pheight);
+            _nextShelfY += pheight;
+            _shelves.add(shelf);
+            shelf.x = pwidth;
+            return new Region(this, 0, shelf.y, width, height);
+        }
+
+        public void reset () {
+            if (prepared) {
+                image.canvas().restore();
+                prepared = false;
+            }
+            image.canvas().clear();
+            free.clear();
+            _shelves.clear();
+            _nextShelfY = 0;
+        }
+
+        protected final int _width, _height;
+        protected final List<Shelf> _shelves = new ArrayList<Shelf>();
+        protected int _nextShelfY;
+    }
+
+    protected static class Shelf {
+        public final int y, height;
+        public int x;
+
+        public Shelf (int y, int height) {
+            this.y = y;
+            this.height = height;
+        }
+    }
+
+    protected final int _pageWidth, _pageHeight;
+    protected final List<Page> _pages = new ArrayList<Page>();
+
+    protected static final int DEFAULT_PAGE_SIZE = 512;
+    protected static final int PADDING = 1;
+}
@@ -5,15 +5,14 @@
 
 package tripleplay.util;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import playn.core.Events;
 import playn.core.Layer;
 
+import pythagoras.f.FloatMath;
 import pythagoras.f.IPoint;
 import pythagoras.f.IRectangle;
 import pythagoras.f.Point;
+import pythagoras.f.Rectangle;
 
 /**
  * Dispatches user input from a particular source.
@@ -40,6 +39,13 @@ public abstract class Input<L>
 
         /** Returns true if the (screen-coordinates) point triggers falls in this region. */
         public abstract boolean hitTest (IPoint p);
+
+        /** Returns screen bounds that contain this region and that will not change for as long as
+         * the region is registered, or null if there are no such bounds. Regions with fixed
+         * bounds can be spatially indexed, see {@link Input#enableIndex}. */
+        public IRectangle fixedBounds () {
+            return null;
+        }
     }
 
     /** A region that encompasses the entire screen. */
@@ -49,7 +55,8 @@ public abstract class Input<L>
         }
     }
 
-    /** A region that encompasses the supplied (screen) bounds. */
+    /** A region that encompasses the supplied (screen) bounds. If the region is registered with
+     * an indexed input, the bounds must not subsequently change. */
     public static class BoundsRegion extends Region {
         public BoundsRegion (IRectangle bounds) {
             _bounds = bounds;
@@ -58,6 +65,9 @@ public abstract class Input<L>
         @Override public boolean hitTest (IPoint p) {
             return _bounds.contains(p);
         }
+        @Override public IRectangle fixedBounds () {
+            return _bounds;
+        }
 
         protected IRectangle _bounds;
     }
@@ -81,11 +91,25 @@ public abstract class Input<L>
         @Override public boolean hitTest (IPoint p) {
             // convert the screen coordinates into layer-relative coordinates and check that the
             // point falls within the (layer-transform-relative) bounds
-            return _bounds.contains(Layer.Util.screenToLayer(_layer, p, new Point()));
+            return _bounds.contains(Layer.Util.screenToLayer(_layer, p, _lp));
+        }
+        @Override public IRectangle fixedBounds () {
+            return _fixedBounds;
+        }
+
+        /** Declares that this region's layer (and its parents) will not move while the region is
+         * registered, which allows the region to be spatially indexed. Returns this region for
+         * chaining. */
+        public LayerRegion fixed () {
+            _fixedBounds = screenBounds(
+                _layer, _bounds.x(), _bounds.y(), _bounds.width(), _bounds.height());
+            return this;
         }
 
         protected Layer _layer;
         protected IRectangle _bounds;
+        protected Rectangle _fixedBounds;
+        protected final Point _lp = new Point(); // scratch point for hit testing
     }
 
     /** A region that encompasses the supplied layer's (transformed) bounds. While the layer in
@@ -105,12 +129,25 @@ public abstract class Input<L>
         }
         @Override public boolean hitTest (IPoint p) {
             // convert the screen coordinates into layer-relative coordinates
-            Point lp = Layer.Util.screenToLayer(_layer, p, new Point());
+            Point lp = Layer.Util.screenToLayer(_layer, p, _lp);
             float x = lp.x, y = lp.y;
             return (x > 0 && y > 0 && x < _layer.scaledWidth() && y < _layer.scaledHeight());
         }
+        @Override public IRectangle fixedBounds () {
+            return _fixedBounds;
+        }
+
+        /** Declares that this region's layer (and its parents) will neither move nor change size
+         * while the region is registered, which allows the region to be spatially indexed.
+         * Returns this region for chaining. */
+        public SizedLayerRegion fixed () {
+            _fixedBounds = screenBounds(_layer, 0, 0, _layer.scaledWidth(), _layer.scaledHeight());
+            return this;
+        }
 
         protected Layer.HasSize _layer;
+        protected Rectangle _fixedBounds;
+        protected final Point _lp = new Point(); // scratch point for hit testing
     }
 
     /**
@@ -158,44 +195,290 @@ public abstract class Input<L>
         return register(new SizedLayerRegion(layer), listener);
     }
 
+    /**
+     * Enables a spatial index of the reactions whose regions have {@link Region#fixedBounds}, such
+     * as {@link BoundsRegion}s and {@link LayerRegion#fixed} layer regions. A pointer event is then
+     * hit-tested only against the indexed reactions in the grid cell that contains it (and any
+     * unindexed reactions), which makes hit testing of many small regions much cheaper.
+     *
+     * @param cellSize the size of the (square) grid cells, which should be comparable to the
+     * size of the indexed regions.
+     * @throws IllegalStateException if an index has already been enabled.
+     */
+    public void enableIndex (float cellSize) {
+        reactor().enableIndex(cellSize);
+    }
+
+    /** Returns the reactor that dispatches this input's events. */
+    protected abstract Reactor<L> reactor ();
+
     protected abstract static class Reactor<L> {
         public L hitTest (Events.Position event) {
-            // take a snapshot of the regions list to avoid concurrent modification if reactions
-            // are added or removed during processing
-            List<Reaction<L>> snapshot = new ArrayList<Reaction<L>>(_reactions);
-            Point p = new Point(event.x(), event.y());
-            for (int ii = snapshot.size() - 1; ii >= 0; ii--) {
-                Reaction<L> r = snapshot.get(ii);
+            // periodically purge canceled and expired reactions; we do this before scanning our
+            // reactions so that they're never compacted out from under a scan
+            if (++_ops >= _sweepAt) sweep();
+
+            Point p = _scratch.set(event.x(), event.y());
+            Reaction<L>[] rs = _reactions.rs;
+            Slots<L> cell = (_grid == null) ? null : _grid.cell(p.x, p.y);
+            Reaction<L>[] cs = (cell == null) ? null : cell.rs;
+            int ii = _reactions.count - 1, cc = (cell == null) ? -1 : cell.count - 1;
+            while (true) {
+                while (ii >= 0 && (rs[ii] == null || !rs[ii].live)) ii--;
+                while (cc >= 0 && (cs[cc] == null || !cs[cc].live)) cc--;
+                if (ii < 0 && cc < 0) return null;
+                // check the most recently registered of the next indexed and unindexed reactions
+                Reaction<L> r;
+                if (cc < 0 || (ii >= 0 && rs[ii].seq > cs[cc].seq)) r = rs[ii--];
+                else r = cs[cc--];
                 if (r.region.hasExpired()) {
-                    _reactions.remove(r);
+                    cancel(r);
                 } else if (r.region.canTrigger() && r.region.hitTest(p)) {
                     return r.listener;
                 }
             }
-            return null;
         }
 
         public Registration register (Region region, L listener) {
             final Reaction<L> reaction = new Reaction<L>(region, listener);
-            _reactions.add(reaction);
+            reaction.seq = _nextSeq++;
+            add(reaction);
+            _live++;
+            // registrations count toward our next sweep, but do not trigger it: a region may not
+            // be ready to answer hasExpired (its layer not yet added, say) until we next dispatch
+            _ops++;
             return new Registration() {
                 @Override public void cancel () {
-                    _reactions.remove(reaction);
+                    Reactor.this.cancel(reaction);
                 }
             };
         }
 
-        /** A list of all registered reactions. */
-        protected List<Reaction<L>> _reactions = new ArrayList<Reaction<L>>();
+        public void enableIndex (float cellSize) {
+            if (_grid != null) throw new IllegalStateException("Index already enabled.");
+            _grid = new Grid<L>(cellSize);
+            // move any indexable reactions into the grid
+            Slots<L> reactions = _reactions;
+            _reactions = new Slots<L>();
+            for (int ii = 0; ii < reactions.count; ii++) {
+                Reaction<L> r = reactions.rs[ii];
+                if (r != null && r.live) add(r);
+            }
+        }
+
+        protected void add (Reaction<L> r) {
+            IRectangle bounds = r.region.fixedBounds();
+            if (_grid == null || bounds == null || !_grid.add(r, bounds)) {
+                r.slot = _reactions.add(r, true);
+            }
+        }
+
+        /** Cancels the supplied reaction in constant time: its slot is cleared (or in the case of
+         * indexed reactions, it is marked dead), and the hole is purged by a later compaction. */
+        protected void cancel (Reaction<L> r) {
+            if (!r.live) return;
+            r.live = false;
+            _live--;
+            if (!r.indexed) _reactions.clear(r.slot);
+        }
+
+        /** Purges canceled and expired reactions. This is scheduled such that its cost is
+         * amortized over a number of operations proportional to the number of reactions, and is
+         * only done on dispatch, when regions would be checked for expiry in any case. */
+        protected void sweep () {
+            _live -= _reactions.expire();
+            _reactions.compact(true);
+            if (_grid != null) _live -= _grid.sweep();
+            _sweepAt = _ops + Math.max(MIN_SWEEP_INTERVAL, _live);
+        }
+
+        /** All registered reactions that are not in our grid, in order of registration. */
+        protected Slots<L> _reactions = new Slots<L>();
+        protected Grid<L> _grid;
+        protected int _nextSeq, _live, _ops, _sweepAt = MIN_SWEEP_INTERVAL;
+        protected final Point _scratch = new Point();
+    }
+
+    /**
+     * An array of reactions in order of registration. A reaction is removed by clearing its slot
+     * (or marking it dead), and the resulting holes are purged when the array is compacted, which
+     * happens when it would otherwise need to grow, or during a sweep.
+     */
+    protected static class Slots<L> {
+        @SuppressWarnings("unchecked") public Reaction<L>[] rs = (Reaction<L>[])new Reaction<?>[4];
+        public int count;
+
+        /** Appends the supplied reaction, returning its slot. */
+        public int add (Reaction<L> r, boolean track) {
+            if (count == rs.length) {
+                compact(track);
+                if (count > rs.length * 3 / 4) {
+                    @SuppressWarnings("unchecked") Reaction<L>[] nrs =
+                        (Reaction<L>[])new Reaction<?>[rs.length * 2];
+                    System.arraycopy(rs, 0, nrs, 0, count);
+                    rs = nrs;
+                }
+            }
+            rs[count] = r;
+            return count++;
+        }
+
+        /** Clears the specified slot. */
+        public void clear (int slot) {
+            rs[slot] = null;
+        }
+
+        /** Marks any of our reactions whose regions have expired as dead.
+         * @return the number of reactions so marked. */
+        public int expire () {
+            int expired = 0;
+            for (int ii = 0; ii < count; ii++) {
+                Reaction<L> r = rs[ii];
+                if (r != null && r.live && r.region.hasExpired()) {
+                    r.live = false;
+                    expired++;
+                }
+            }
+            return expired;
+        }
+
+        /** Removes dead reactions, preserving the order of those that remain.
+         * @param track whether to update the {@link Reaction#slot} of the reactions moved. */
+        public void compact (boolean track) {
+            int live = 0;
+            for (int ii = 0; ii < count; ii++) {
+                Reaction<L> r = rs[ii];
+                if (r == null || !r.live) continue;
+                if (track) r.slot = live;
+                rs[live++] = r;
+            }
+            for (int ii = live; ii < count; ii++) rs[ii] = null;
+            count = live;
+        }
+    }
+
+    /** A uniform grid of cells, each of which contains the reactions whose regions' fixed bounds
+     * intersect it, in order of registration. The grid grows to encompass the regions added, up
+     * to {@link #MAX_GRID_CELLS} cells in total. */
+    protected static class Grid<L> {
+        public final float cellSize;
+
+        public Grid (float cellSize) {
+            this.cellSize = cellSize;
+        }
+
+        /** Adds the supplied reaction to the cells intersected by the supplied bounds.
+         * @return false if the bounds span too many cells to be indexed, or lie too far from the
+         * regions already indexed, true otherwise. */
+        public boolean add (Reaction<L> r, IRectangle bounds) {
+            int col0 = FloatMath.ifloor(bounds.minX() / cellSize);
+            int row0 = FloatMath.ifloor(bounds.minY() / cellSize);
+            int col1 = FloatMath.ifloor(bounds.maxX() / cellSize);
+            int row1 = FloatMath.ifloor(bounds.maxY() / cellSize);
+            if ((long)(col1 - col0 + 1) * (row1 - row0 + 1) > MAX_CELLS) return false;
+            if (!ensureCovers(col0, row0, col1, row1)) return false;
+            for (int row = row0; row <= row1; row++) {
+                for (int col = col0; col <= col1; col++) {
+                    int idx = (row - _row0) * _cols + (col - _col0);
+                    if (_cells[idx] == null) _cells[idx] = new Slots<L>();
+                    _cells[idx].add(r, false);
+                }
+            }
+            r.indexed = true;
+            return true;
+        }
+
+        /** Returns the cell that contains the supplied point, or null. */
+        public Slots<L> cell (float x, float y) {
+            int col = FloatMath.ifloor(x / cellSize) - _col0;
+            int row = FloatMath.ifloor(y / cellSize) - _row0;
+            if (col < 0 || row < 0 || col >= _cols || row >= _rows) return null;
+            return _cells[row * _cols + col];
+        }
+
+        /** Marks the expired reactions in all of our cells as dead, and compacts the cells.
+         * @return the number of reactions that expired. */
+        public int sweep () {
+            int expired = 0;
+            if (_cells == null) return expired;
+            for (Slots<L> cell : _cells) {
+                if (cell == null) continue;
+                expired += cell.expire();
+                cell.compact(false);
+            }
+            return expired;
+        }
+
+        /** Grows the grid to cover the specified cells, unless that would exceed {@link
+         * #MAX_GRID_CELLS}. Returns whether the grid covers them. */
+        protected boolean ensureCovers (int col0, int row0, int col1, int row1) {
+            if (_cells != null) {
+                if (col0 >= _col0 && row0 >= _row0 &&
+                    col1 < _col0 + _cols && row1 < _row0 + _rows) return true;
+                col0 = Math.min(col0, _col0);
+                row0 = Math.min(row0, _row0);
+                col1 = Math.max(col1, _col0 + _cols - 1);
+                row1 = Math.max(row1, _row0 + _rows - 1);
+            }
+            if ((long)(col1 - col0 + 1) * (row1 - row0 + 1) > MAX_GRID_CELLS) return false;
+            int cols = col1 - col0 + 1, rows = row1 - row0 + 1;
+            @SuppressWarnings("unchecked") Slots<L>[] cells = (Slots<L>[])new Slots<?>[cols * rows];
+            for (int row = 0; row < _rows; row++) {
+                System.arraycopy(_cells, row * _cols,
+                                 cells, (row + _row0 - row0) * cols + (_col0 - col0), _cols);
+            }
+            _cells = cells;
+            _col0 = col0;
+            _row0 = row0;
+            _cols = cols;
+            _rows = rows;
+            return true;
+        }
+
+        protected Slots<L>[] _cells;
+        protected int _col0, _row0, _cols, _rows;
     }
 
     protected static final class Reaction<T> {
         public final Region region;
         public final T listener;
 
+        /** The order in which this reaction was registered. */
+        public int seq;
+
+        /** False once this reaction has been canceled or has expired. */
+        public boolean live = true;
+
+        /** Whether this reaction is in its reactor's grid. */
+        public boolean indexed;
+
+        /** The slot occupied by this (unindexed) reaction in its reactor's reactions. */
+        public int slot;
+
         public Reaction (Region region, T listener) {
             this.region = region;
             this.listener = listener;
         }
     }
+
+    /** Returns the screen bounds of the supplied rectangle in the supplied layer's coordinates. */
+    protected static Rectangle screenBounds (Layer layer, float x, float y, float w, float h) {
+        Point p = Layer.Util.layerToScreen(layer, x, y);
+        Rectangle bounds = new Rectangle(p.x, p.y, 0, 0);
+        bounds.add(Layer.Util.layerToScreen(layer, x + w, y));
+        bounds.add(Layer.Util.layerToScreen(layer, x, y + h));
+        bounds.add(Layer.Util.layerToScreen(layer, x + w, y + h));
+        return bounds;
+    }
+
+    /** The maximum number of grid cells that an indexed region may span. Regions that are larger
+     * than this are not indexed. */
+    protected static final int MAX_CELLS = 64;
+
+    /** The maximum number of cells in a grid. Regions that would grow the grid beyond this are
+     * not indexed. */
+    protected static final int MAX_GRID_CELLS = 128 * 128;
+
+    /** The minimum number of operations (registrations and hit tests) between sweeps. */
+    protected static final int MIN_SWEEP_INTERVAL = 256;
 }
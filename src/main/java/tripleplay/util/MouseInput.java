@@ -30,6 +30,10 @@ public class MouseInput extends Input<Mouse.Listener>
         return _reactor.register(region, listener);
     }
 
+    @Override protected Reactor<Mouse.Listener> reactor () {
+        return _reactor;
+    }
+
     /** Receives input from the PlayN Mouse service. */
     protected class MouseReactor extends Reactor<Mouse.Listener> implements Mouse.Listener {
         @Override public void onMouseDown (Mouse.ButtonEvent event) {
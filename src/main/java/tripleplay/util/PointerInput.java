@@ -40,6 +40,10 @@ public class PointerInput extends Input<Pointer.Listener>
         return ((PointerReactor)plistener).register(region, listener);
     }
 
+    @Override protected Reactor<Pointer.Listener> reactor () {
+        return (PointerReactor)plistener;
+    }
+
     protected class PointerReactor extends Reactor<Pointer.Listener>
         implements Pointer.Listener {
         @Override public void onPointerStart (Pointer.Event event) {
@@ -0,0 +1,154 @@
+//
+// Triple Play - utilities for use in PlayN-based games
+// Copyright (c) 2011, Three Rings Design, Inc. - All rights reserved.
+// http://github.com/threerings/tripleplay/blob/master/LICENSE
+
+package tripleplay.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import playn.core.Font;
+import playn.core.PlayN;
+import playn.core.TextFormat;
+import playn.core.TextLayout;
+
+/**
+ * A least-recently-used cache of {@link TextLayout}s, keyed on the laid out text and the font,
+ * wrap width, alignment, color and effect of its {@link TextFormat}. Laying out text is
+ * expensive, and interfaces tend to lay out the same strings over and over, so text widgets
+ * obtain their layouts via {@link #SHARED}.
+ */
+public class TextLayoutCache
+{
+    /** The cache shared by all text widgets, which retains up to 512 layouts. */
+    public static final TextLayoutCache SHARED = new TextLayoutCache(512);
+
+    /**
+     * Creates a cache that retains at most {@code capacity} layouts.
+     */
+    public TextLayoutCache (int capacity) {
+        _capacity = capacity;
+        _layouts = new LinkedHashMap<Key,TextLayout>(16, 0.75f, true) {
+            @Override protected boolean removeEldestEntry (Map.Entry<Key,TextLayout> eldest) {
+                return size() > _capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the layout of the supplied text in the supplied format, laying it out if a matching
+     * layout is not already cached.
+     */
+    public TextLayout layout (String text, TextFormat format) {
+        Key key = new Key(text, format);
+        TextLayout layout = _layouts.get(key);
+        if (layout != null) {
+            _hits++;
+            return layout;
+        }
+        _misses++;
+        layout = PlayN.graphics().layoutText(text, format);
+        _layouts.put(key, layout);
+        return layout;
+    }
+
+    /** Returns the number of layouts currently cached. */
+    public int size () {
+        return _layouts.size();
+    }
+
+    /** Returns the number of lookups that were satisfied by a cached layout. */
+    public int hits () {
+        return _hits;
+    }
+
+    /** Returns the number of lookups that required the text to be laid out. */
+    public int misses () {
+        return _misses;
+    }
+
+    /**
+     * Returns true if text laid out in the two supplied formats would be identical: they have the
+     * same font, wrap width, alignment, color and effect.
+     */
+    public static boolean sameFormat (TextFormat a, TextFormat b) {
+        return a == b || (sameFont(a.font, b.font) && a.wrapWidth == b.wrapWidth &&
+                          a.align == b.align && a.textColor == b.textColor &&
+                          sameEffect(a.effect, b.effect));
+    }
+
+    /** Discards all cached layouts and resets the hit and miss counters. */
+    public void clear () {
+        _layouts.clear();
+        _hits = _misses = 0;
+    }
+
+    protected static class Key {
+        public final String text;
+        public final TextFormat format;
+
+        public Key (String text, TextFormat format) {
+            this.text = text;
+            this.format = format;
+            Font font = format.font;
+            int hash = text.hashCode();
+            if (font != null) {
+                hash = 31*hash + font.name().hashCode();
+                hash = 31*hash + font.style().hashCode();
+                hash = 31*hash + Float.floatToIntBits(font.size());
+            }
+            hash = 31*hash + Float.floatToIntBits(format.wrapWidth);
+            hash = 31*hash + format.align.hashCode();
+            hash = 31*hash + format.textColor;
+            _hash = 31*hash + format.effect.getClass().hashCode();
+        }
+
+        @Override public int hashCode () {
+            return _hash;
+        }
+
+        @Override public boolean equals (Object other) {
+            if (!(other instanceof Key)) return false;
+            Key okey = (Key)other;
+            return okey._hash == _hash && okey.text.equals(text) &&
+                sameFormat(okey.format, format);
+        }
+
+        protected final int _hash;
+    }
+
+    /**
+     * Returns true if the two supplied fonts (either of which may be null) have the same name,
+     * style and size.
+     */
+    public static boolean sameFont (Font a, Font b) {
+        if (a == b) return true;
+        if (a == null || b == null) return false;
+        return a.name().equals(b.name()) && a.style() == b.style() && a.size() == b.size();
+    }
+
+    /**
+     * Returns true if the two supplied effects are of the same kind and have the same parameters.
+     */
+    public static boolean sameEffect (TextFormat.Effect a, TextFormat.Effect b) {
+        // effects are created anew for every text format, so compare their contents
+        if (a == b) return true;
+        if (a instanceof TextFormat.Effect.Shadow && b instanceof TextFormat.Effect.Shadow) {
+            TextFormat.Effect.Shadow as = (TextFormat.Effect.Shadow)a;
+            TextFormat.Effect.Shadow bs = (TextFormat.Effect.Shadow)b;
+            return as.shadowColor == bs.shadowColor && as.shadowOffsetX == bs.shadowOffsetX &&
+                as.shadowOffsetY == bs.shadowOffsetY;
+        }
+        if (a instanceof TextFormat.Effect.PixelOutline &&
+            b instanceof TextFormat.Effect.PixelOutline) {
+            return ((TextFormat.Effect.PixelOutline)a).outlineColor ==
+                ((TextFormat.Effect.PixelOutline)b).outlineColor;
+        }
+        return false;
+    }
+
+    protected final int _capacity;
+    protected final Map<Key,TextLayout> _layouts;
+    protected int _hits, _misses;
+}
@@ -57,9 +57,9 @@ public class Timer
     protected void update (long now) {
         _currentTime = now;
 
-        Action root = _root;
-        while (root.next != null && root.next.nextExpire <= now) {
-            Action act = root.next;
+        while (_count > 0 && _heap[0].nextExpire <= now) {
+            // the action remains in the heap while it runs, so that it can cancel itself
+            Action act = _heap[0];
             try {
                 act.action.run();
             } catch (Exception e) {
@@ -70,7 +70,9 @@ public class Timer
                     act.cancel();
                 } else {
                     act.nextExpire += act.repeatMillis;
-                    root.next = insert(act, act.next);
+                    // rescheduled actions go after any others set to expire at the same time
+                    act.seq = _nextSeq++;
+                    siftDown(act.index);
                 }
             }
         }
@@ -78,35 +80,75 @@ public class Timer
 
     protected Handle add (int initialMillis, int repeatMillis, Runnable action) {
         Action act = new Action(initialMillis, repeatMillis, action);
-        _root.next = insert(act, _root.next);
+        insert(act);
         return act;
     }
 
-    protected Action insert (Action target, Action tail) {
-        if (tail == null || tail.nextExpire > target.nextExpire) {
-            target.next = tail;
-            return target;
-        } else {
-            tail.next = insert(target, tail.next);
-            return tail;
+    protected void insert (Action act) {
+        if (_count == _heap.length) {
+            Action[] heap = new Action[_count*2];
+            System.arraycopy(_heap, 0, heap, 0, _count);
+            _heap = heap;
         }
+        act.seq = _nextSeq++;
+        act.index = _count++;
+        _heap[act.index] = act;
+        siftUp(act.index);
     }
 
-    protected Action remove (Action target, Action tail) {
-        if (target == tail) return tail.next;
-        else if (tail == null) return null;
-        else {
-            tail.next = remove(target, tail.next);
-            return tail;
+    protected void remove (Action act) {
+        int index = act.index, last = --_count;
+        Action moved = _heap[last];
+        _heap[last] = null;
+        act.index = -1;
+        // move the last action into the vacated slot and restore the heap from there
+        if (index != last) {
+            _heap[index] = moved;
+            moved.index = index;
+            siftDown(index);
+            siftUp(moved.index);
         }
     }
 
+    protected void siftUp (int index) {
+        Action act = _heap[index];
+        while (index > 0) {
+            int parent = (index-1) >>> 1;
+            Action pact = _heap[parent];
+            if (!act.before(pact)) break;
+            _heap[index] = pact;
+            pact.index = index;
+            index = parent;
+        }
+        _heap[index] = act;
+        act.index = index;
+    }
+
+    protected void siftDown (int index) {
+        Action act = _heap[index];
+        int half = _count >>> 1;
+        while (index < half) {
+            int child = 2*index + 1, right = child + 1;
+            if (right < _count && _heap[right].before(_heap[child])) child = right;
+            Action cact = _heap[child];
+            if (!cact.before(act)) break;
+            _heap[index] = cact;
+            cact.index = index;
+            index = child;
+        }
+        _heap[index] = act;
+        act.index = index;
+    }
+
     protected class Action implements Handle {
         public final int repeatMillis;
         public final Runnable action;
 
         public long nextExpire;
-        public Action next;
+        /** Orders actions that expire at the same time (in order of scheduling). */
+        public long seq;
+        /** This action's position in the heap, or -1 if it is not scheduled. */
+        public int index = -1;
 
         public Action (int initialMillis, int repeatMillis, Runnable action) {
             this.nextExpire = _currentTime + initialMillis;
@@ -118,19 +160,26 @@ public class Timer
             return nextExpire == -1;
         }
 
+        public boolean before (Action other) {
+            return nextExpire < other.nextExpire ||
+                (nextExpire == other.nextExpire && seq < other.seq);
+        }
+
         @Override public void cancel () {
             if (!cancelled()) {
-                _root.next = remove(this, _root.next);
+                remove(this);
                 nextExpire = -1;
-                next = null;
             }
         }
 
         @Override public String toString () {
-            return nextExpire + "/" + repeatMillis + "/" + action + " -> " + next;
+            return nextExpire + "/" + repeatMillis + "/" + action;
         }
     }
 
-    protected final Action _root = new Action(0, 0, null);
+    /** Our scheduled actions, in a binary min-heap ordered by expiry time and sequence. */
+    protected Action[] _heap = new Action[16];
+    protected int _count;
+    protected long _nextSeq;
     protected long _currentTime;
 }
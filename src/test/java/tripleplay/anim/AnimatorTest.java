@@ -0,0 +1,227 @@
+//
+// Triple Play - utilities for use in PlayN-based games
+// Copyright (c) 2011, Three Rings Design, Inc. - All rights reserved.
+// http://github.com/threerings/tripleplay/blob/master/LICENSE
+
+package tripleplay.anim;
+
+import java.lang.management.ManagementFactory;
+
+import com.sun.management.ThreadMXBean;
+
+import playn.core.AbstractLayer;
+import playn.core.Layer;
+
+import tripleplay.util.Interpolator;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests aspects of the {@link Animator} class.
+ */
+public class AnimatorTest
+{
+    @Test public void testBatchedMatchesNormal () {
+        Animator normal = Animator.create(), batched = Animator.createBatched();
+        Layer nl = new TestLayer(), bl = new TestLayer();
+        for (Animator anim : new Animator[] { normal, batched }) {
+            Layer layer = (anim == normal) ? nl : bl;
+            anim.tweenXY(layer).to(100, 50).in(10).easeInOut();
+            anim.tweenAlpha(layer).from(1).to(0).in(5);
+        }
+
+        for (float time = 0; time <= 12; time += 0.5f) {
+            normal.update(time);
+            batched.update(time);
+            assertEquals(nl.transform().tx(), bl.transform().tx(), 0.0001f);
+            assertEquals(nl.transform().ty(), bl.transform().ty(), 0.0001f);
+            assertEquals(nl.alpha(), bl.alpha(), 0.0001f);
+        }
+        assertEquals(100, bl.transform().tx(), 0);
+        assertEquals(50, bl.transform().ty(), 0);
+        assertEquals(0, bl.alpha(), 0);
+        assertTrue(((Animator.Impl)batched)._batch.isEmpty());
+    }
+
+    @Test public void testBatchedChain () {
+        Animator anim = Animator.createBatched();
+        Layer layer = new TestLayer();
+        final int[] ran = new int[1];
+        anim.tweenX(layer).to(10).in(2).then().action(new Runnable() {
+            public void run () {
+                ran[0]++;
+            }
+        }).then().tweenX(layer).to(0).in(2);
+
+        anim.update(0);
+        anim.update(1);
+        assertEquals(5, layer.transform().tx(), 0);
+        assertEquals(0, ran[0]);
+        anim.update(2);
+        assertEquals(10, layer.transform().tx(), 0);
+        // the action runs on the frame following the tween's completion, as it would normally
+        anim.update(3);
+        assertEquals(1, ran[0]);
+        anim.update(5);
+        assertEquals(0, layer.transform().tx(), 0);
+        assertEquals(1, ran[0]);
+    }
+
+    @Test public void testBatchedCancel () {
+        Animator anim = Animator.createBatched();
+        Layer layer = new TestLayer();
+        Animation.One tween = anim.tweenX(layer).to(10).in(10);
+        anim.update(0);
+        anim.update(5);
+        assertEquals(5, layer.transform().tx(), 0);
+        assertTrue(tween.cancel());
+        anim.update(6);
+        assertEquals(5, layer.transform().tx(), 0);
+        assertTrue(((Animator.Impl)anim)._batch.isEmpty());
+    }
+
+    @Test public void testBatchedInterpolators () {
+        Animator anim = Animator.createBatched();
+        Layer layer = new TestLayer();
+        // tweens with their own interpolators, which the batch must not retain once they complete
+        for (int ii = 0; ii < 100; ii++) {
+            final float scale = ii;
+            anim.tweenX(layer).to(10).in(1).using(new Interpolator() {
+                @Override public float apply (float start, float range, float dt, float t) {
+                    return start + range * scale * dt / t / 100;
+                }
+            });
+        }
+        anim.update(0);
+        anim.update(0.5f);
+        assertEquals(99 * 5f / 100, layer.transform().tx(), 0.0001f);
+        anim.update(1);
+        TweenBatch batch = ((Animator.Impl)anim)._batch;
+        assertTrue(batch.isEmpty());
+        for (Interpolator interp : batch._interps) assertNull(interp);
+    }
+
+    @Test public void testCompletionOrder () {
+        Animator anim = Animator.create();
+        final StringBuilder order = new StringBuilder();
+        // interleave long and short delays; the survivors must keep running in their original order
+        for (int ii = 0; ii < 10; ii++) {
+            final int idx = ii;
+            anim.delay(ii % 2 == 0 ? 1 : 3).then().action(new Runnable() {
+                public void run () {
+                    order.append(idx);
+                }
+            });
+        }
+        anim.update(0);
+        anim.update(2);
+        anim.update(2.5f);
+        assertEquals("02468", order.toString());
+        anim.update(4);
+        anim.update(4.5f);
+        assertEquals("0246813579", order.toString());
+        assertTrue(((Animator.Impl)anim)._anims.isEmpty());
+    }
+
+    @Test public void testPooledReuse () {
+        Animator anim = Animator.createPooled();
+        Animator.Pool pool = ((Animator.Impl)anim)._pool;
+        Layer layer = new TestLayer();
+        final float[] value = new float[1];
+        Animation.Value target = new Animation.Value() {
+            public float initial () { return value[0]; }
+            public void set (float v) { value[0] = v; }
+        };
+        final int[] ran = new int[1];
+        Runnable action = new Runnable() {
+            public void run () {
+                ran[0]++;
+            }
+        };
+
+        float time = 0;
+        int created = 0;
+        for (int round = 0; round < 5; round++) {
+            anim.tweenX(layer).from(0).to(10).in(1).then().delay(1).then().action(action);
+            anim.tweenXY(layer).to(5, 5).in(0.5f);
+            anim.tween(target).from(0).to(1).in(2).then().tweenAlpha(layer).to(0.5f).in(1);
+            for (int ii = 0; ii < 8; ii++) anim.update(time += 0.5f);
+
+            assertEquals(round+1, ran[0]);
+            assertEquals(1, value[0], 0);
+            assertEquals(0.5f, layer.alpha(), 0);
+            // the first round populates the pool, after that no new animations are created
+            if (round == 0) created = pool.created;
+            else assertEquals(created, pool.created);
+        }
+        assertEquals(6, created);
+    }
+
+    @Test public void testPooledActions () {
+        Animator anim = Animator.createPooled();
+        Animator.Pool pool = ((Animator.Impl)anim)._pool;
+        Layer layer = new TestLayer();
+        // the first few rounds (whose chains overlap) populate the pool, after that no
+        // animations or actions are created
+        float time = 0;
+        for (int round = 0; round < 5; round++) time = runPooledRound(anim, layer, time);
+        int created = pool.created, createdActions = pool.createdActions;
+        assertTrue(createdActions > 0);
+        for (int round = 0; round < 10; round++) time = runPooledRound(anim, layer, time);
+        assertEquals(created, pool.created);
+        assertEquals(createdActions, pool.createdActions);
+    }
+
+    @Test public void testPooledAllocation () {
+        java.lang.management.ThreadMXBean tbean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(tbean instanceof ThreadMXBean);
+        ThreadMXBean bean = (ThreadMXBean)tbean;
+        Assume.assumeTrue(bean.isThreadAllocatedMemorySupported() &&
+                          bean.isThreadAllocatedMemoryEnabled());
+
+        Animator anim = Animator.createPooled();
+        Layer layer = new TestLayer();
+        long thread = Thread.currentThread().getId(), before = 0;
+        float time = 0;
+        for (int round = 0; round < 200; round++) {
+            // the first rounds populate the pool (and warm up the code), after that nothing
+            if (round == 100) before = bean.getThreadAllocatedBytes(thread);
+            time = runPooledRound(anim, layer, time);
+        }
+        long allocated = bean.getThreadAllocatedBytes(thread) - before;
+        // allow for a stray allocation by the VM, but not one per animation or action
+        assertTrue("Allocated " + allocated + " bytes", allocated < 1024);
+    }
+
+    /** Runs a mix of pooled animations and actions to completion, returning the end time. */
+    protected static float runPooledRound (Animator anim, Layer layer, float time) {
+        anim.tweenX(layer).from(0).to(10).in(1).then().setDepth(layer, time).
+            then().action(NOOP).then().destroy(layer);
+        anim.tweenXY(layer).to(5, 5).in(0.5f).then().delay(0.5f);
+        for (int ii = 0; ii < 4; ii++) anim.update(time += 0.5f);
+        return time;
+    }
+
+    @Test public void testPooledCancel () {
+        Animator anim = Animator.createPooled();
+        Animator.Pool pool = ((Animator.Impl)anim)._pool;
+        Layer layer = new TestLayer();
+        Animation.One tween = anim.tweenX(layer).to(10).in(10);
+        anim.update(0);
+        anim.update(5);
+        tween.cancel();
+        anim.update(6);
+        assertEquals(5, layer.transform().tx(), 0);
+        // the cancelled tween should have been reset and recycled
+        assertSame(tween, anim.tweenY(layer));
+        assertEquals(1, pool.created);
+    }
+
+    protected static final Runnable NOOP = new Runnable() {
+        public void run () {}
+    };
+
+    protected static class TestLayer extends AbstractLayer {
+    }
+}
@@ -0,0 +1,416 @@
+//
+// Triple Play - utilities for use in PlayN-based games
+// Copyright (c) 2011, Three Rings Design, Inc. - All rights reserved.
+// http://github.com/threerings/tripleplay/blob/master/LICENSE
+
+package tripleplay.ui;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import playn.core.Canvas;
+import playn.core.GroupLayer;
+import playn.core.Pointer;
+import playn.java.JavaPlatform;
+
+import pythagoras.f.Dimension;
+import pythagoras.f.IDimension;
+
+import react.Slot;
+
+import tripleplay.ui.layout.AxisLayout;
+import tripleplay.ui.layout.FlowLayout;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests aspects of the {@link Element} class.
+ */
+public class ElementTest
+{
+    static {
+        JavaPlatform.register();
+    }
+
+    @Test public void testIncrementalLayout () {
+        Interface iface = new Interface();
+        Root root = iface.createRoot(AxisLayout.vertical(), Stylesheet.builder().create());
+        Group group = new Group(AxisLayout.vertical());
+        Box a = new Box(10, 10), b = new Box(20, 20);
+        group.add(a, b);
+        root.add(group);
+        root.setSize(100, 100);
+        iface.paint(0);
+        assertEquals(4, iface.lastLayoutCount());
+        iface.paint(0);
+        assertEquals(0, iface.lastLayoutCount());
+
+        // invalidating an element whose preferred size is unchanged lays out only that element
+        a.invalidate();
+        iface.paint(0);
+        assertEquals(1, iface.lastLayoutCount());
+        assertEquals(1, group.layouts);
+
+        // a change in preferred size propagates to its ancestors, but not its siblings
+        a.resize(15, 15);
+        iface.paint(0);
+        assertEquals(3, iface.lastLayoutCount());
+        assertEquals(2, group.layouts);
+        assertEquals(1, b.layouts);
+        assertEquals(15, a.size().width(), 0);
+
+        // hiding an element frees its space in its parent
+        b.setVisible(false);
+        iface.paint(0);
+        assertEquals(3, group.layouts);
+    }
+
+    @Test public void testBackgroundReuse () {
+        Interface iface = new Interface();
+        Root root = iface.createRoot(
+            AxisLayout.vertical().offStretch(), Stylesheet.builder().create());
+        CountingBackground bg = new CountingBackground();
+        Group group = new Group(AxisLayout.vertical());
+        group.addStyles(Style.BACKGROUND.is(bg));
+        group.add(new Box(10, 10));
+        root.add(group);
+        root.setSize(100, 100);
+        iface.paint(0);
+        assertEquals(1, bg.instances);
+
+        // relayout at an unchanged size reuses the background instance
+        for (int ii = 0; ii < 5; ii++) {
+            group.invalidate();
+            iface.paint(0);
+        }
+        assertEquals(6, group.layouts);
+        assertEquals(1, bg.instances);
+
+        // as does relayout at a new size, resizing the instance in place
+        root.setSize(50, 50);
+        iface.paint(0);
+        assertEquals(50, group.size().width(), 0);
+        assertEquals(1, bg.instances);
+        assertEquals(1, bg.resizes);
+
+        // a change of background replaces the instance
+        group.addStyles(Style.BACKGROUND.is(new CountingBackground()));
+        iface.paint(0);
+        assertEquals(1, bg.destroys);
+    }
+
+    @Test public void testRepaint () {
+        Interface iface = new Interface();
+        Root root = iface.createRoot(AxisLayout.vertical(), Stylesheet.builder().create());
+        Group group = new Group(AxisLayout.vertical());
+        Box box = new Box(10, 10);
+        Slider slider = new Slider(0, 0, 1);
+        group.add(box, slider);
+        root.add(group);
+        root.setSize(100, 100);
+        iface.paint(0);
+        int computes = box.computes;
+
+        // a repaint lays out only the element, without remeasuring it
+        box.invalidatePaint();
+        box.invalidatePaint();
+        iface.paint(0);
+        assertEquals(1, iface.lastLayoutCount());
+        assertEquals(2, box.layouts);
+        assertEquals(computes, box.computes);
+        assertEquals(1, group.layouts);
+
+        // a change to a slider's value only moves its thumb, and requires no layout at all
+        slider.value.update(0.5f);
+        iface.paint(0);
+        assertEquals(0, iface.lastLayoutCount());
+        assertEquals(1, group.layouts);
+    }
+
+    @Test public void testSliderDrag () {
+        Interface iface = new Interface();
+        Root root = iface.createRoot(AxisLayout.vertical(), Stylesheet.builder().create());
+        CountingSlider slider = new CountingSlider();
+        root.add(slider);
+        root.setSize(100, 100);
+        iface.paint(0);
+        assertEquals(1, slider.bars);
+        assertEquals(1, slider.thumbs);
+
+        // dragging the thumb redraws nothing and lays out nothing
+        slider.onPointerStart(new Pointer.Event.Impl(0, 10, 5, false), 10, 5);
+        for (int ii = 11; ii < 90; ii++) {
+            slider.onPointerDrag(new Pointer.Event.Impl(0, ii, 5, false), ii, 5);
+            iface.paint(0);
+            assertEquals(0, iface.lastLayoutCount());
+        }
+        slider.onPointerEnd(new Pointer.Event.Impl(0, 90, 5, false), 90, 5);
+        iface.paint(0);
+        assertEquals(0.9f, slider.value.get(), 0.001f);
+        assertEquals(1, slider.bars);
+        assertEquals(1, slider.thumbs);
+
+        // a change in size redraws only the bar
+        slider.setSize(50, slider.size().height());
+        iface.paint(0);
+        assertEquals(2, slider.bars);
+        assertEquals(1, slider.thumbs);
+    }
+
+    @Test public void testSkippedLeaf () {
+        Interface iface = new Interface();
+        Root root = iface.createRoot(AxisLayout.vertical(), Stylesheet.builder().create());
+        Group outer = new Group(AxisLayout.vertical()), inner = new Group(AxisLayout.vertical());
+        Box leaf = new Box(10, 10);
+        inner.add(leaf);
+        outer.add(inner);
+        root.add(outer);
+        root.setSize(100, 100);
+        iface.paint(0);
+
+        // the leaf keeps its size, so its parent is not laid out when its grandparent is; it must
+        // nonetheless be validated
+        leaf.resize(10, 10);
+        outer.add(new Box(10, 10));
+        iface.paint(0);
+        assertTrue(leaf.isSet(Element.Flag.VALID));
+        assertEquals(1, inner.layouts);
+        assertEquals(2, leaf.layouts);
+
+        // and later changes to the leaf take effect
+        leaf.resize(20, 20);
+        iface.paint(0);
+        assertEquals(20, leaf.size().width(), 0);
+    }
+
+    @Test public void testPackAfterResize () {
+        Interface iface = new Interface();
+        Root root = iface.createRoot(AxisLayout.vertical(), Stylesheet.builder().create());
+        Group group = new Group(AxisLayout.vertical());
+        Box leaf = new Box(10, 10);
+        group.add(leaf);
+        root.add(group);
+        root.pack();
+        iface.paint(0);
+        assertEquals(10, root.size().width(), 0);
+
+        // packing accounts for changes deep in the hierarchy
+        leaf.resize(40, 40);
+        root.pack();
+        iface.paint(0);
+        assertEquals(40, root.size().width(), 0);
+        assertEquals(40, root.size().height(), 0);
+        assertEquals(40, leaf.size().width(), 0);
+    }
+
+    @Test public void testOtherHintsChanged () {
+        Interface iface = new Interface();
+        Root root = iface.createRoot(AxisLayout.vertical(), Stylesheet.builder().create());
+        Group group = new Group(new HalfWidthLayout());
+        Wrapper leaf = new Wrapper(40, 10, 20);
+        group.add(leaf);
+        root.add(group);
+        root.setSize(100, 100);
+        iface.paint(0);
+        assertEquals(20, leaf.size().width(), 0);
+        assertEquals(20, leaf.size().height(), 0);
+
+        // a change in the size measured with only the parent's other hints is noticed
+        leaf.wrappedHeight = 30;
+        leaf.invalidate();
+        iface.paint(0);
+        assertEquals(30, leaf.size().height(), 0);
+    }
+
+    @Test public void testPreferredSizeHints () {
+        Box box = new Box(100, 10);
+        assertEquals(100, box.preferredSize(0, 0).width(), 0);
+        // sizes computed with different hints are cached separately
+        assertEquals(50, box.preferredSize(50, 0).width(), 0);
+        assertEquals(20, box.preferredSize(50, 0).height(), 0);
+        assertEquals(100, box.preferredSize(0, 0).width(), 0);
+        assertEquals(2, box.computes);
+        // and are all discarded on invalidation
+        box.validate();
+        box.invalidate();
+        assertEquals(50, box.preferredSize(50, 0).width(), 0);
+        assertEquals(3, box.computes);
+    }
+
+    @Test public void testRetainedMetrics () {
+        Interface iface = new Interface();
+        Root root = iface.createRoot(AxisLayout.vertical(), Stylesheet.builder().create());
+        CountingFlowLayout flow = new CountingFlowLayout();
+        Group group = new Group(flow);
+        group.add(new Box(40, 10), new Box(40, 10), new Box(40, 10));
+        root.add(group);
+        root.setSize(100, 100);
+        iface.paint(0);
+        // the group is laid out at the size it requested, so its metrics are computed only once
+        assertEquals(85, group.size().width(), 0);
+        assertEquals(25, group.size().height(), 0);
+        assertEquals(1, flow.computes);
+    }
+
+    @Test public void testBatch () {
+        Interface iface = new Interface();
+        Root root = iface.createRoot(AxisLayout.vertical(), Stylesheet.builder().create());
+        Group group = new Group(AxisLayout.vertical());
+        root.add(group);
+        root.setSize(100, 100);
+        Box a = new Box(10, 10), b = new Box(10, 10), c = new Box(10, 10);
+        group.add(a, b);
+        iface.paint(0);
+
+        final List<Element<?>> added = new ArrayList<Element<?>>();
+        final List<Element<?>> removed = new ArrayList<Element<?>>();
+        group.childAdded().connect(new Slot<Element<?>>() {
+            public void onEmit (Element<?> child) {
+                added.add(child);
+            }
+        });
+        group.childRemoved().connect(new Slot<Element<?>>() {
+            public void onEmit (Element<?> child) {
+                removed.add(child);
+            }
+        });
+
+        // nothing is reported until the batch is committed, and then only the net changes
+        group.beginBatch();
+        group.removeAll();
+        group.add(c, b);
+        group.remove(c);
+        assertTrue(added.isEmpty());
+        assertTrue(removed.isEmpty());
+        assertTrue(group.isSet(Element.Flag.VALID));
+        group.commitBatch();
+        assertEquals(Arrays.asList(a), removed);
+        assertTrue(added.isEmpty());
+        assertFalse(group.isSet(Element.Flag.VALID));
+
+        // and the group is laid out once
+        iface.paint(0);
+        assertEquals(2, group.layouts);
+        assertEquals(1, group.childCount());
+        assertSame(b, group.childAt(0));
+    }
+
+    protected static class CountingFlowLayout extends FlowLayout {
+        public int computes;
+
+        @Override protected Metrics computeMetrics (Elements<?> elems, float width, float height) {
+            computes++;
+            return super.computeMetrics(elems, width, height);
+        }
+    }
+
+    protected static class CountingSlider extends Slider {
+        public int bars, thumbs;
+
+        public CountingSlider () {
+            super(0, 0, 1);
+        }
+
+        @Override protected void renderBar (Canvas canvas, float width) {
+            bars++;
+            super.renderBar(canvas, width);
+        }
+
+        @Override protected void renderThumb (Canvas canvas) {
+            thumbs++;
+            super.renderThumb(canvas);
+        }
+    }
+
+    protected static class CountingBackground extends Background {
+        public int instances, resizes, destroys;
+
+        @Override protected Instance instantiate (IDimension size) {
+            instances++;
+            return new Instance() {
+                @Override public void addTo (GroupLayer parent) {}
+                @Override public void destroy () {
+                    destroys++;
+                }
+                @Override public boolean resize (IDimension size) {
+                    resizes++;
+                    return true;
+                }
+            };
+        }
+    }
+
+    protected static class Box extends Widget<Box> {
+        public int layouts, computes;
+
+        public Box (float width, float height) {
+            _psize = new Dimension(width, height);
+        }
+
+        public void resize (float width, float height) {
+            _psize.setSize(width, height);
+            invalidate();
+        }
+
+        @Override protected Dimension computeSize (float hintX, float hintY) {
+            computes++;
+            // wrap, like text, if we're constrained in width
+            if (hintX > 0 && hintX < _psize.width) {
+                return new Dimension(hintX, _psize.width * _psize.height / hintX);
+            }
+            return new Dimension(_psize);
+        }
+
+        @Override protected void layout () {
+            layouts++;
+        }
+
+        protected final Dimension _psize;
+    }
+
+    /** A box with a fixed height when constrained in width. */
+    protected static class Wrapper extends Box {
+        public float wrappedHeight;
+
+        public Wrapper (float width, float height, float wrappedHeight) {
+            super(width, height);
+            this.wrappedHeight = wrappedHeight;
+        }
+
+        @Override protected Dimension computeSize (float hintX, float hintY) {
+            return (hintX > 0) ? new Dimension(hintX, wrappedHeight) :
+                super.computeSize(hintX, hintY);
+        }
+    }
+
+    /** Measures its only child unconstrained, but lays it out constrained to half that width. */
+    protected static class HalfWidthLayout extends Layout {
+        @Override public Dimension computeSize (Elements<?> elems, float hintX, float hintY) {
+            IDimension psize = preferredSize(elems.childAt(0), 0, 0);
+            IDimension hsize = preferredSize(elems.childAt(0), psize.width()/2, 0);
+            return new Dimension(psize.width(), Math.max(psize.height(), hsize.height()));
+        }
+
+        @Override public void layout (Elements<?> elems, float left, float top,
+                                      float width, float height) {
+            Element<?> child = elems.childAt(0);
+            IDimension hsize = preferredSize(child, preferredSize(child, 0, 0).width()/2, 0);
+            setBounds(child, left, top, hsize.width(), hsize.height());
+        }
+    }
+
+    protected static class Group extends tripleplay.ui.Group {
+        public int layouts;
+
+        public Group (Layout layout) {
+            super(layout);
+        }
+
+        @Override protected void layout () {
+            super.layout();
+            layouts++;
+        }
+    }
+}
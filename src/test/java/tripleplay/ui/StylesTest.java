@@ -5,8 +5,13 @@
 
 package tripleplay.ui;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 import playn.java.JavaPlatform;
 
+import tripleplay.ui.layout.AxisLayout;
+
 import org.junit.*;
 import static org.junit.Assert.*;
 
@@ -69,6 +74,144 @@ public class StylesTest
         checkEquals(null, s, Style.COLOR);
     }
 
+    @Test public void testSheetResolution () {
+        Interface iface = new Interface();
+        Stylesheet sheet1 = Stylesheet.builder().add(Label.class, Style.COLOR.is(1)).
+            add(Label.class, Style.Mode.DISABLED, Style.COLOR.is(2)).create();
+        Stylesheet sheet2 = Stylesheet.builder().add(Element.class, Style.COLOR.is(3)).create();
+        Root root1 = iface.createRoot(AxisLayout.vertical(), sheet1);
+        Root root2 = iface.createRoot(AxisLayout.vertical(), sheet2);
+
+        Group group = new Group(AxisLayout.vertical());
+        Label label = new Label();
+        group.add(label);
+        root1.add(group);
+        assertEquals((Integer)1, Styles.resolveStyle(label, Style.COLOR));
+        // the cached value must respect the element's mode
+        label.setEnabled(false);
+        assertEquals((Integer)2, Styles.resolveStyle(label, Style.COLOR));
+        label.setEnabled(true);
+        assertEquals((Integer)1, Styles.resolveStyle(label, Style.COLOR));
+
+        // changing a stylesheet must be noticed
+        group.setStylesheet(sheet2);
+        assertEquals((Integer)3, Styles.resolveStyle(label, Style.COLOR));
+        group.setStylesheet(null);
+        assertEquals((Integer)1, Styles.resolveStyle(label, Style.COLOR));
+
+        // as must moving into a different hierarchy
+        root1.remove(group);
+        root2.add(group);
+        assertEquals((Integer)3, Styles.resolveStyle(label, Style.COLOR));
+
+        // and an element's own styles take precedence
+        label.addStyles(Style.COLOR.is(4));
+        assertEquals((Integer)4, Styles.resolveStyle(label, Style.COLOR));
+        label.setStyles(Styles.none());
+        assertEquals((Integer)3, Styles.resolveStyle(label, Style.COLOR));
+
+        // styles provided by no sheet fall back to their default
+        assertEquals(Style.SHADOW.getDefault(label), Styles.resolveStyle(label, Style.SHADOW));
+    }
+
+    @Test public void testFlattenedSheet () {
+        Stylesheet sheet = Stylesheet.builder().
+            add(Element.class, Style.COLOR.is(1), Style.SHADOW.is(2), Style.ICON_GAP.is(3)).
+            add(Label.class, Style.Mode.DISABLED, Style.COLOR.is(4)).
+            add(SubLabel.class, Style.SHADOW.is(5)).
+            add(SubSubLabel.class, Style.COLOR.is(6), Style.ICON_GAP.is(7)).create();
+        Element<?>[] elems = { new Label(), new SubLabel(), new SubSubLabel(), new Button() };
+        Style<?>[] styles = { Style.COLOR, Style.SHADOW, Style.ICON_GAP, Style.HIGHLIGHT };
+        for (Element<?> elem : elems) {
+            for (boolean enabled : new boolean[] { true, false }) {
+                elem.setEnabled(enabled);
+                for (Style<?> style : styles) {
+                    assertEquals(elem.getClass().getName() + " " + enabled,
+                                 sheet.getRecursive(style, elem.getClass(), elem),
+                                 sheet.get(style, elem.getClass(), elem));
+                }
+            }
+        }
+        // spot check a few of the results
+        SubSubLabel ssl = new SubSubLabel();
+        assertEquals((Integer)6, sheet.get(Style.COLOR, SubSubLabel.class, ssl));
+        assertEquals((Integer)5, sheet.get(Style.SHADOW, SubSubLabel.class, ssl));
+        assertEquals((Integer)7, sheet.get(Style.ICON_GAP, SubSubLabel.class, ssl));
+        // ICON_GAP is not inherited, so SubLabel does not get Element's value
+        assertNull(sheet.get(Style.ICON_GAP, SubLabel.class, new SubLabel()));
+        SubLabel sl = new SubLabel();
+        sl.setEnabled(false);
+        assertEquals((Integer)4, sheet.get(Style.COLOR, SubLabel.class, sl));
+    }
+
+    @Test public void testInterning () {
+        Styles a = Styles.make(Style.COLOR.is(1), Style.SHADOW.is(2));
+        assertSame(a, Styles.make(Style.SHADOW.is(2), Style.COLOR.is(1)));
+        assertNotSame(a, Styles.make(Style.COLOR.is(1), Style.SHADOW.is(3)));
+        // however it was arrived at
+        assertSame(a, a.clear(Style.Mode.DEFAULT, Style.COLOR).add(Style.COLOR.is(1)));
+        Styles b = Styles.none().addDisabled(Style.COLOR.is(4));
+        assertSame(a.merge(b), a.merge(b));
+        checkEquals((Integer)1, a.merge(b), Style.COLOR);
+    }
+
+    @Test public void testSparseIds () {
+        // an app style created long after the built-in styles
+        Style<Integer> early = Style.COLOR, late = null;
+        for (int ii = 0; ii < 1000; ii++) late = Style.newStyle(false, 0);
+        Styles s = Styles.make(early.is(1), late.is(2));
+        // is not indexed by a table spanning every style id in between
+        assertNull(s._byId);
+        checkEquals((Integer)1, s, early);
+        checkEquals((Integer)2, s, late);
+        checkIsNull(s, Style.SHADOW);
+        // while styles with nearby ids are
+        Styles d = Styles.make(Style.COLOR.is(1), Style.SHADOW.is(2));
+        assertNotNull(d._byId);
+        checkEquals((Integer)2, d, Style.SHADOW);
+    }
+
+    @Test public void testSharedStyles () {
+        // a 2,000 element tree of buttons created by the same factory code
+        Group root = new Group(AxisLayout.vertical());
+        for (int ii = 0; ii < 40; ii++) {
+            Group row = new Group(AxisLayout.horizontal());
+            for (int jj = 0; jj < 50; jj++) row.add(createButton("" + jj));
+            root.add(row);
+        }
+
+        // count the styles instances, bindings and binding arrays retained by the tree
+        Map<Object, Boolean> styles = new IdentityHashMap<Object, Boolean>();
+        Map<Object, Boolean> bindings = new IdentityHashMap<Object, Boolean>();
+        int elements = 0, slots = 0;
+        for (Element<?> row : root) {
+            for (Element<?> button : (Group)row) {
+                elements++;
+                if (styles.put(button.styles(), true) != null) continue;
+                Styles.Binding<?>[] byId = button.styles()._byId;
+                slots += button.styles()._bindings.length + (byId == null ? 0 : byId.length);
+                for (Styles.Binding<?> binding : button.styles()._bindings) {
+                    bindings.put(binding, true);
+                }
+            }
+        }
+        assertEquals(2000, elements);
+        // every button shares a single styles instance, and thus a single set of bindings; without
+        // interning, each would retain its own instance, two arrays and four bindings
+        assertEquals(1, styles.size());
+        assertEquals(4, bindings.size());
+        assertTrue(slots <= 2*Style._nextId);
+    }
+
+    protected static Button createButton (String text) {
+        return new Button(text).addStyles(Style.COLOR.is(0xFF202020), Style.HALIGN.left).
+            addStyles(Styles.none().addDisabled(Style.COLOR.is(0xFF808080)).
+                      addSelected(Style.TEXT_EFFECT.shadow, Style.SHADOW.is(0xFF000000)));
+    }
+
+    protected static class SubLabel extends Label {}
+    protected static class SubSubLabel extends SubLabel {}
+
     protected static <V> void checkIsNull (Styles s, Style<V> style) {
         assertNull(s.get(new Styles.Binding<V>(style), new Label()));
     }
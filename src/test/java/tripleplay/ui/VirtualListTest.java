@@ -0,0 +1,157 @@
+//
+// Triple Play - utilities for use in PlayN-based games
+// Copyright (c) 2011, Three Rings Design, Inc. - All rights reserved.
+// http://github.com/threerings/tripleplay/blob/master/LICENSE
+
+package tripleplay.ui;
+
+import playn.core.Pointer;
+import playn.java.JavaPlatform;
+
+import pythagoras.f.Dimension;
+
+import react.Slot;
+
+import tripleplay.ui.layout.AxisLayout;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests the {@link VirtualList} class.
+ */
+public class VirtualListTest
+{
+    static {
+        JavaPlatform.register();
+    }
+
+    @Test public void testRecycling () {
+        Interface iface = new Interface();
+        Root root = iface.createRoot(
+            AxisLayout.vertical().offStretch(), Stylesheet.builder().create());
+        Model model = new Model(10000);
+        VirtualList<Row> list = new VirtualList<Row>(model, 20);
+        root.add(list);
+        root.setSize(100, 200);
+        iface.paint(0);
+
+        // only the viewport's ten rows, plus a buffer below, are materialized
+        int rows = 10 + VirtualList.BUFFER_ROWS;
+        assertEquals(rows, list.childCount());
+        assertEquals(rows, model.created);
+        assertBound(list, 0, rows);
+
+        // scrolling rebinds the existing rows rather than creating more
+        for (int ii = 1; ii <= 100; ii++) {
+            list.scrollTo(ii * 7);
+            list.update(0);
+            iface.paint(0);
+        }
+        assertEquals(rows + VirtualList.BUFFER_ROWS, model.created);
+        assertBound(list, 700 - VirtualList.BUFFER_ROWS, 710 + VirtualList.BUFFER_ROWS);
+        assertEquals(20, list.childAt(0).size().height(), 0);
+
+        // scrolling past the end stops at the last entry
+        list.scrollTo(20000);
+        assertBound(list, 9990 - VirtualList.BUFFER_ROWS, 10000);
+
+        // shrinking the model rebinds everything
+        model.size = 5;
+        list.modelChanged();
+        iface.paint(0);
+        assertBound(list, 0, 5);
+    }
+
+    @Test public void testModelChanged () {
+        Interface iface = new Interface();
+        Root root = iface.createRoot(AxisLayout.vertical(), Stylesheet.builder().create());
+        Model model = new Model(100);
+        VirtualList<Row> list = new VirtualList<Row>(model, 20);
+        root.add(list);
+        root.setSize(100, 200);
+        iface.paint(0);
+        assertEquals(50, list.size().width(), 0);
+
+        // the rows are rebound before the list is measured again
+        list.modelChanged();
+        iface.paint(0);
+        assertEquals(50, list.size().width(), 0);
+        assertBound(list, 0, 10 + VirtualList.BUFFER_ROWS);
+
+        // even if the list was scrolled past the end of the new model
+        list.scrollTo(90);
+        model.size = 20;
+        list.modelChanged();
+        iface.paint(0);
+        assertEquals(50, list.size().width(), 0);
+        assertBound(list, 10 - VirtualList.BUFFER_ROWS, 20);
+    }
+
+    @Test public void testClicked () {
+        Interface iface = new Interface();
+        Root root = iface.createRoot(
+            AxisLayout.vertical().offStretch(), Stylesheet.builder().create());
+        VirtualList<Row> list = new VirtualList<Row>(new Model(100), 20);
+        root.add(list);
+        root.setSize(100, 200);
+        iface.paint(0);
+        list.scrollTo(10);
+
+        final int[] clicked = { -1 };
+        list.clicked().connect(new Slot<Integer>() {
+            public void onEmit (Integer index) {
+                clicked[0] = index;
+            }
+        });
+        Pointer.Event event = new Pointer.Event.Impl(0, 50, 45, false);
+        list._flicker.onPointerStart(event);
+        list._flicker.onPointerEnd(event);
+        assertEquals(12, clicked[0]);
+    }
+
+    protected void assertBound (VirtualList<Row> list, int first, int last) {
+        boolean[] seen = new boolean[last-first];
+        for (int ii = 0; ii < list.childCount(); ii++) {
+            int index = ((Row)list.childAt(ii)).index;
+            if (list._indices[ii] < 0) continue;
+            assertEquals(list._indices[ii], index);
+            assertTrue(index >= first && index < last);
+            seen[index-first] = true;
+        }
+        for (boolean s : seen) assertTrue(s);
+    }
+
+    protected static class Model implements VirtualList.Model<Row> {
+        public int size, created;
+
+        public Model (int size) {
+            this.size = size;
+        }
+
+        public int size () {
+            return size;
+        }
+
+        public Row createRow () {
+            created++;
+            return new Row();
+        }
+
+        public void bindRow (Row row, int index) {
+            row.index = index;
+            row.invalidate();
+        }
+    }
+
+    protected static class Row extends Widget<Row> {
+        public int index = -1;
+
+        @Override protected Dimension computeSize (float hintX, float hintY) {
+            return new Dimension(50, 20);
+        }
+
+        @Override protected void layout () {
+        }
+    }
+}
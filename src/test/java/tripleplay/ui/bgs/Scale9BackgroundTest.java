@@ -0,0 +1,109 @@
+//
+// Triple Play - utilities for use in PlayN-based games
+// Copyright (c) 2011, Three Rings Design, Inc. - All rights reserved.
+// http://github.com/threerings/tripleplay/blob/master/LICENSE
+
+package tripleplay.ui.bgs;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import playn.core.GroupLayer;
+import playn.core.Image;
+import playn.core.PlayN;
+import playn.core.Surface;
+import playn.java.JavaPlatform;
+
+import pythagoras.f.Dimension;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests the batched rendering of {@link Scale9Background}s.
+ */
+public class Scale9BackgroundTest
+{
+    static {
+        JavaPlatform.register();
+    }
+
+    @Test public void testBatch () {
+        GroupLayer host = PlayN.graphics().createGroupLayer();
+        Scale9Background.Batch batch = new Scale9Background.Batch(host);
+        TestScale9 bg = new TestScale9(PlayN.graphics().createImage(30, 30));
+        bg.batched(batch);
+
+        Object a = bg.reinst(null, 10, host);
+        Object b = bg.reinst(null, 20, host);
+        Object c = bg.reinst(null, 30, host);
+        assertEquals(3, batch.size());
+        assertDrawn(batch, 10, 20, 30);
+
+        // resizing reuses the instance, which draws at its new size
+        assertSame(b, bg.reinst(b, 25, host));
+        assertEquals(3, batch.size());
+        assertDrawn(batch, 10, 25, 30);
+
+        bg.destroy(a);
+        assertEquals(2, batch.size());
+        assertDrawn(batch, 25, 30);
+
+        // instances relaid out after the background moves to a new batch move with it
+        Scale9Background.Batch nbatch = new Scale9Background.Batch(host);
+        bg.batched(nbatch);
+        Object nc = bg.reinst(c, 30, host);
+        assertNotSame(c, nc);
+        assertEquals(1, batch.size());
+        assertEquals(1, nbatch.size());
+        // and those not yet relaid out leave the batch they joined
+        bg.destroy(b);
+        assertEquals(0, batch.size());
+        assertEquals(1, nbatch.size());
+        assertDrawn(batch);
+        assertDrawn(nbatch, 30);
+
+        // instances relaid out after the background is unbatched are rendered by layers
+        bg.batched(null);
+        Object lc = bg.reinst(nc, 30, host);
+        assertFalse(lc instanceof Scale9Background.BatchedInstance);
+        assertEquals(0, nbatch.size());
+    }
+
+    protected static void assertDrawn (Scale9Background.Batch batch, float... sizes) {
+        final List<Float> drawn = new ArrayList<Float>();
+        Surface surf = (Surface)Proxy.newProxyInstance(
+            Surface.class.getClassLoader(), new Class<?>[] { Surface.class },
+            new InvocationHandler() {
+                public Object invoke (Object proxy, Method m, Object[] args) {
+                    // our image is empty, so only the (square) center part of each is drawn
+                    if (m.getName().equals("drawImage")) drawn.add((Float)args[3]);
+                    return proxy;
+                }
+            });
+        batch.render(surf);
+        List<Float> expected = new ArrayList<Float>();
+        for (float size : sizes) expected.add(size);
+        Collections.sort(drawn);
+        assertEquals(expected, drawn);
+    }
+
+    /** Exposes the instantiation of (square) instances. Instances are opaque to the test. */
+    protected static class TestScale9 extends Scale9Background {
+        public TestScale9 (Image image) {
+            super(image);
+        }
+
+        public Object reinst (Object inst, float size, GroupLayer parent) {
+            return reinstantiate((Instance)inst, new Dimension(size, size), parent);
+        }
+
+        public void destroy (Object inst) {
+            ((Instance)inst).destroy();
+        }
+    }
+}
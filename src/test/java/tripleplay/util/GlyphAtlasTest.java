@@ -0,0 +1,74 @@
+//
+// Triple Play - utilities for use in PlayN-based games
+// Copyright (c) 2011, Three Rings Design, Inc. - All rights reserved.
+// http://github.com/threerings/tripleplay/blob/master/LICENSE
+
+package tripleplay.util;
+
+import playn.java.JavaPlatform;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class GlyphAtlasTest
+{
+    static {
+        JavaPlatform.register();
+    }
+
+    @Test
+    public void testPacking () {
+        GlyphAtlas atlas = new GlyphAtlas(64, 64);
+        GlyphAtlas.Region r1 = atlas.allocate(20, 10);
+        GlyphAtlas.Region r2 = atlas.allocate(20, 10);
+        GlyphAtlas.Region r3 = atlas.allocate(20, 10);
+        // three regions share a shelf, with padding between them
+        assertEquals(0, r1.x);
+        assertEquals(21, r2.x);
+        assertEquals(42, r3.x);
+        assertEquals(r1.y, r3.y);
+        // a fourth does not fit on that shelf and goes onto a new one
+        GlyphAtlas.Region r4 = atlas.allocate(20, 10);
+        assertEquals(0, r4.x);
+        assertEquals(11, r4.y);
+        assertEquals(1, atlas.pageCount());
+        assertEquals(4, atlas.regionCount());
+
+        // a region larger than a page cannot be allocated
+        assertNull(atlas.allocate(64, 10));
+        // one that does not fit in the remaining space goes onto a new page
+        atlas.allocate(40, 50);
+        assertEquals(2, atlas.pageCount());
+    }
+
+    @Test
+    public void testReuse () {
+        GlyphAtlas atlas = new GlyphAtlas(64, 64);
+        GlyphAtlas.Region r1 = atlas.allocate(20, 10);
+        GlyphAtlas.Region r2 = atlas.allocate(30, 10);
+        atlas.release(r2);
+        // released regions are reused by allocations that fit in them
+        assertSame(r2, atlas.allocate(25, 8));
+        assertNotSame(r1, atlas.allocate(25, 8));
+        // double release is harmless
+        atlas.release(r1);
+        atlas.release(r1);
+        assertEquals(2, atlas.regionCount());
+    }
+
+    @Test
+    public void testPageReset () {
+        GlyphAtlas atlas = new GlyphAtlas(64, 64);
+        GlyphAtlas.Region r1 = atlas.allocate(60, 30);
+        GlyphAtlas.Region r2 = atlas.allocate(60, 30);
+        assertEquals(1, atlas.pageCount());
+        atlas.release(r1);
+        atlas.release(r2);
+        assertEquals(0, atlas.regionCount());
+        // once the page is empty, it is packed from scratch
+        GlyphAtlas.Region r3 = atlas.allocate(40, 62);
+        assertEquals(0, r3.x);
+        assertEquals(0, r3.y);
+        assertEquals(1, atlas.pageCount());
+    }
+}
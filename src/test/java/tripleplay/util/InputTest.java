@@ -0,0 +1,139 @@
+//
+// Triple Play - utilities for use in PlayN-based games
+// Copyright (c) 2011, Three Rings Design, Inc. - All rights reserved.
+// http://github.com/threerings/tripleplay/blob/master/LICENSE
+
+package tripleplay.util;
+
+import playn.core.Pointer;
+
+import pythagoras.f.IPoint;
+import pythagoras.f.Rectangle;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class InputTest
+{
+    @Test
+    public void testUnindexed () {
+        checkPrecedence(new PointerInput());
+    }
+
+    @Test
+    public void testIndexed () {
+        PointerInput input = new PointerInput();
+        input.enableIndex(10);
+        checkPrecedence(input);
+        assertEquals(2, reactor(input)._reactions.count); // only the huge regions
+    }
+
+    @Test
+    public void testIndexLater () {
+        PointerInput input = new PointerInput();
+        Pointer.Listener a = new Pointer.Adapter(), b = new Pointer.Adapter();
+        input.register(new Rectangle(0, 0, 20, 20), a);
+        input.register(new Rectangle(10, 10, 20, 20), b);
+        input.enableIndex(8);
+        assertEquals(0, reactor(input)._reactions.count);
+        assertSame(a, hit(input, 5, 5));
+        assertSame(b, hit(input, 15, 15));
+        assertNull(hit(input, 35, 35));
+        assertNull(hit(input, -5, -5));
+    }
+
+    @Test
+    public void testDistantRegions () {
+        PointerInput input = new PointerInput();
+        input.enableIndex(10);
+        Pointer.Listener a = new Pointer.Adapter(), b = new Pointer.Adapter();
+        input.register(new Rectangle(0, 0, 10, 10), a);
+        input.register(new Rectangle(100000, 100000, 10, 10), b);
+        // the distant region is not indexed, rather than growing the grid to span both
+        assertEquals(1, reactor(input)._reactions.count);
+        assertTrue(reactor(input)._grid._cells.length <= Input.MAX_GRID_CELLS);
+        assertSame(a, hit(input, 5, 5));
+        assertSame(b, hit(input, 100005, 100005));
+    }
+
+    @Test
+    public void testChurn () {
+        PointerInput input = new PointerInput();
+        Pointer.Listener a = new Pointer.Adapter();
+        input.register(new Rectangle(0, 0, 20, 20), a);
+        for (int ii = 0; ii < 10000; ii++) {
+            input.register(new Rectangle(0, 0, 20, 20), new Pointer.Adapter()).cancel();
+        }
+        // canceled reactions leave no lasting trace
+        assertTrue(reactor(input)._reactions.rs.length <= 8);
+        assertSame(a, hit(input, 5, 5));
+    }
+
+    @Test
+    public void testSweep () {
+        PointerInput input = new PointerInput();
+        ExpiringRegion region = new ExpiringRegion();
+        input.register(region, new Pointer.Adapter());
+        Pointer.Listener a = new Pointer.Adapter();
+        input.register(a);
+        region.expired = true;
+        // the expired region is never reached by a hit test, but is eventually swept
+        for (int ii = 0; ii < 1000; ii++) assertSame(a, hit(input, 5, 5));
+        assertEquals(1, reactor(input)._reactions.count);
+        assertEquals(1, reactor(input)._live);
+    }
+
+    @Test
+    public void testNoSweepOnRegister () {
+        PointerInput input = new PointerInput();
+        // a region that is not ready at registration (say, its layer is yet to be added)
+        ExpiringRegion region = new ExpiringRegion();
+        region.expired = true;
+        Pointer.Listener a = new Pointer.Adapter();
+        input.register(region, a);
+        // is not purged by the registrations that follow it
+        for (int ii = 0; ii < 1000; ii++) {
+            input.register(new Rectangle(1000, 1000, 20, 20), new Pointer.Adapter());
+        }
+        region.expired = false;
+        assertSame(a, hit(input, 5, 5));
+    }
+
+    protected static class ExpiringRegion extends Input.Region {
+        public boolean expired;
+        @Override public boolean hasExpired () {
+            return expired;
+        }
+        @Override public boolean hitTest (IPoint p) {
+            return true;
+        }
+    }
+
+    protected void checkPrecedence (PointerInput input) {
+        Pointer.Listener a = new Pointer.Adapter(), b = new Pointer.Adapter();
+        Pointer.Listener c = new Pointer.Adapter(), d = new Pointer.Adapter();
+        input.register(new Rectangle(-1000, -1000, 3000, 3000), a);
+        Input.Registration rb = input.register(new Rectangle(0, 0, 20, 20), b);
+        input.register(new Rectangle(10, 10, 20, 20), c);
+        assertSame(b, hit(input, 5, 5));
+        // the more recently registered region takes precedence where they overlap
+        assertSame(c, hit(input, 15, 15));
+        assertSame(c, hit(input, 25, 25));
+        assertSame(a, hit(input, 500, 500));
+        // even if it's less recently registered than an overlapping indexed region
+        input.register(new Rectangle(-500, -500, 2000, 2000), d);
+        assertSame(d, hit(input, 15, 15));
+        assertSame(d, hit(input, 5, 5));
+        rb.cancel();
+        rb.cancel();
+        assertSame(d, hit(input, 5, 5));
+    }
+
+    protected static Pointer.Listener hit (PointerInput input, float x, float y) {
+        return reactor(input).hitTest(new Pointer.Event.Impl(0, x, y, false));
+    }
+
+    protected static Input.Reactor<Pointer.Listener> reactor (PointerInput input) {
+        return input.reactor();
+    }
+}
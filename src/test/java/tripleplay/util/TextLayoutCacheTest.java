@@ -0,0 +1,56 @@
+//
+// Triple Play - utilities for use in PlayN-based games
+// Copyright (c) 2011, Three Rings Design, Inc. - All rights reserved.
+// http://github.com/threerings/tripleplay/blob/master/LICENSE
+
+package tripleplay.util;
+
+import playn.core.TextFormat;
+import playn.core.TextLayout;
+import playn.java.JavaPlatform;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class TextLayoutCacheTest
+{
+    static {
+        JavaPlatform.register();
+    }
+
+    @Test
+    public void testHitsAndMisses () {
+        TextLayoutCache cache = new TextLayoutCache(10);
+        TextFormat format = new TextFormat();
+        TextLayout l1 = cache.layout("one", format);
+        assertSame(l1, cache.layout("one", format));
+        // equivalent formats share layouts, even with freshly created effects
+        TextFormat shadow = format.withEffect(TextFormat.Effect.shadow(0xFF000000, 2, 2));
+        TextLayout l2 = cache.layout("one", shadow);
+        assertNotSame(l1, l2);
+        assertSame(l2, cache.layout(
+            "one", format.withEffect(TextFormat.Effect.shadow(0xFF000000, 2, 2))));
+        // but differing formats do not
+        assertNotSame(l1, cache.layout("one", format.withWrapWidth(50)));
+        assertNotSame(l1, cache.layout("one", format.withTextColor(0xFFFF0000)));
+        assertNotSame(l1, cache.layout("two", format));
+        assertEquals(2, cache.hits());
+        assertEquals(5, cache.misses());
+    }
+
+    @Test
+    public void testEviction () {
+        TextLayoutCache cache = new TextLayoutCache(2);
+        TextFormat format = new TextFormat();
+        TextLayout one = cache.layout("one", format);
+        cache.layout("two", format);
+        // touch "one" so that "two" is the least recently used
+        cache.layout("one", format);
+        cache.layout("three", format);
+        assertEquals(2, cache.size());
+        assertSame(one, cache.layout("one", format));
+        int misses = cache.misses();
+        cache.layout("two", format);
+        assertEquals(misses+1, cache.misses());
+    }
+}
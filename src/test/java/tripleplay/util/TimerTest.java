@@ -205,6 +205,35 @@ public class TimerTest
         assertEquals(1, ran2.ranCount);
     }
 
+    @Test
+    public void testManyActions () {
+        // schedule enough actions that a recursive implementation would overflow the stack, cancel
+        // every third one and make sure the rest run once each, in order of expiry
+        final int count = 100000;
+        Timer timer = new Timer(0);
+        final int[] ran = new int[count];
+        final int[] last = { -1 };
+        Timer.Handle[] handles = new Timer.Handle[count];
+        for (int ii = 0; ii < count; ii++) {
+            final int delay = (ii * 7919) % count; // visit delays in scrambled order
+            handles[ii] = timer.after(delay, new Runnable() {
+                public void run () {
+                    assertTrue(delay >= last[0]);
+                    last[0] = delay;
+                    ran[delay]++;
+                }
+            });
+        }
+        for (int ii = 0; ii < count; ii += 3) handles[ii].cancel();
+
+        timer.update(count/2);
+        timer.update(count);
+        for (int ii = 0; ii < count; ii++) {
+            int delay = (ii * 7919) % count;
+            assertEquals(ii % 3 == 0 ? 0 : 1, ran[delay]);
+        }
+    }
+
     protected static class Counter implements Runnable
     {
         public int ranCount;